@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+def names = [ 'aggregate' : 'Aggregate', 'module-a' : 'Module A', 'module-b' : 'Module B' ]
+for ( module in names.keySet() )
+{
+    def dir = module == 'aggregate' ? basedir : new File( basedir, module )
+    def rdfFile = new File( dir, "target/site/doap_${module}.rdf" )
+    assert rdfFile.exists()
+    def rdf = rdfFile.text
+    assert rdf.contains( "http://www.example.org/${module}" )
+    // the expressions of the configuration are evaluated with each module
+    assert rdf.contains( "<shortdesc xml:lang=\"en\">The ${names[module]} project</shortdesc>" )
+    // only module-b configures a wiki
+    assert rdf.contains( '<wiki rdf:resource="http://www.example.org/module-b/wiki"/>' ) == ( module == 'module-b' )
+}
+
+def catalogFile = new File( basedir, 'target/doap-catalog.rdf' )
+assert catalogFile.exists()
+def catalog = catalogFile.text
+assert catalog.contains( 'http://www.example.org/module-a' )
+assert catalog.contains( 'http://www.example.org/module-b' )
+assert catalog.count( '<foaf:Organization' ) == 1
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.doap.options.DoapArtifact;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * The artifacts of the batch mode, given by the <code>&lt;artifacts/&gt;</code> parameter or by a list file, and the
+ * outcome of the generation of their DOAP files.
+ * <p>
+ * An artifact given twice, or with the DOAP file name of another artifact, is ignored with a warning: each DOAP file
+ * is written by one artifact only. The outcomes can be recorded concurrently.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ArtifactBatch {
+    /** The outcome of the generation of the DOAP file of an artifact. */
+    enum Status {
+        GENERATED,
+        SKIPPED,
+        FAILED
+    }
+
+    private final Log log;
+
+    private final List<DoapArtifact> artifacts = new ArrayList<>();
+
+    /** The artifacts by DOAP file name. */
+    private final Map<String, DoapArtifact> doapFileNames = new HashMap<>();
+
+    private final Map<Status, List<String>> outcomes = new EnumMap<>(Status.class);
+
+    /**
+     * @param log not null
+     */
+    ArtifactBatch(Log log) {
+        this.log = log;
+        for (Status status : Status.values()) {
+            outcomes.put(status, new ArrayList<>());
+        }
+    }
+
+    /**
+     * @param artifact not null
+     * @return <code>true</code> if the artifact was added, <code>false</code> if its DOAP file is already written by
+     *         another artifact
+     */
+    boolean add(DoapArtifact artifact) {
+        DoapArtifact other = doapFileNames.putIfAbsent(artifact.getDoapFileName(), artifact);
+        if (other != null) {
+            log.warn("Ignoring the artifact " + toString(artifact) + ", its DOAP file " + artifact.getDoapFileName()
+                    + " is already written by " + toString(other) + ".");
+            return false;
+        }
+
+        artifacts.add(artifact);
+        return true;
+    }
+
+    /**
+     * Add the artifacts of a list file, with one artifact by line as
+     * <code>groupId:artifactId:version[:doapFileName]</code>. The empty lines and the lines starting with
+     * <code>#</code> are ignored.
+     *
+     * @param file not null
+     * @throws MojoExecutionException if the file could not be read or has an invalid line
+     */
+    void read(File file) throws MojoExecutionException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            for (int number = 1; (line = reader.readLine()) != null; number++) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split(":", -1);
+                if (parts.length < 3 || parts.length > 4) {
+                    throw new MojoExecutionException("Invalid artifact '" + line + "' at line " + number + " of "
+                            + file + ", expected groupId:artifactId:version[:doapFileName]");
+                }
+
+                DoapArtifact artifact = new DoapArtifact();
+                artifact.setGroupId(parts[0].trim());
+                artifact.setArtifactId(parts[1].trim());
+                artifact.setVersion(parts[2].trim());
+                if (parts.length == 4) {
+                    artifact.setDoapFileName(parts[3].trim());
+                }
+                add(artifact);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error reading the artifacts file " + file, e);
+        }
+    }
+
+    /**
+     * @return the artifacts to generate, in the order they were added
+     */
+    List<DoapArtifact> getArtifacts() {
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    /**
+     * @param artifact not null
+     * @param status not null
+     * @param message the reason of a skip or a failure, could be null
+     */
+    synchronized void record(DoapArtifact artifact, Status status, String message) {
+        outcomes.get(status).add(message != null ? toString(artifact) + ": " + message : toString(artifact));
+    }
+
+    /**
+     * @param status not null
+     * @return the number of artifacts with this outcome
+     */
+    synchronized int count(Status status) {
+        return outcomes.get(status).size();
+    }
+
+    /**
+     * Log the number of generated, skipped and failed artifacts, with the skipped and failed ones.
+     */
+    synchronized void logSummary() {
+        log.info("DOAP files of " + artifacts.size() + " artifacts: " + count(Status.GENERATED) + " generated, "
+                + count(Status.SKIPPED) + " skipped, " + count(Status.FAILED) + " failed");
+        for (String skipped : outcomes.get(Status.SKIPPED)) {
+            log.warn("Skipped " + skipped);
+        }
+        for (String failed : outcomes.get(Status.FAILED)) {
+            log.error("Failed " + failed);
+        }
+    }
+
+    private static String toString(DoapArtifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Contributor;
+import org.codehaus.plexus.i18n.I18N;
+
+/**
+ * Classifies developers or contributors by their DOAP roles, i.e. <code>maintainer</code>, <code>developer</code>,
+ * <code>documenter</code>, <code>translator</code>, <code>tester</code>, <code>helper</code>.
+ * <p>
+ * The role keywords are read once from the <code>doap-person</code> bundle, then all the persons are classified in
+ * a single pass. A role matches the first keyword it contains, in the order above; a person with an
+ * <code>emeritus</code> role is not listed for this role, and a person without roles or with another role is
+ * <code>unknown</code>.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ContributorRoleClassifier {
+    /** The keys of the classified persons, in the order of the keywords, then the unknown ones. */
+    private static final String[] ROLES = {
+        "maintainers", "developers", "documenters", "translators", "testers", "helpers", "unknowns"
+    };
+
+    private static final String[] KEYS = {
+        "doap.maintainer", "doap.developer", "doap.documenter", "doap.translator", "doap.tester", "doap.helper"
+    };
+
+    private static final int UNKNOWN = ROLES.length - 1;
+
+    /** Marks an emeritus role, not listed. */
+    private static final int EMERITUS = -1;
+
+    private final String[] keywords = new String[KEYS.length];
+
+    private final String emeritus;
+
+    /**
+     * @param i18n not null
+     * @param locale the locale of the role keywords, not null
+     */
+    ContributorRoleClassifier(I18N i18n, Locale locale) {
+        for (int i = 0; i < KEYS.length; i++) {
+            keywords[i] = getLowerCaseString(i18n, locale, KEYS[i]);
+        }
+        emeritus = getLowerCaseString(i18n, locale, "doap.emeritus");
+    }
+
+    /**
+     * @param developersOrContributors list of <code>{@link Contributor}</code>, could be null
+     * @return a none null map with <code>maintainers</code>, <code>developers</code>, <code>documenters</code>,
+     *         <code>translators</code>, <code>testers</code>, <code>helpers</code>, <code>unknowns</code> as keys and
+     *         list of <code>{@link Contributor}</code> as value, each person listed at most once by list
+     */
+    Map<String, List<Contributor>> classify(List<Contributor> developersOrContributors) {
+        List<List<Contributor>> lists = new ArrayList<>(ROLES.length);
+        Map<String, List<Contributor>> classified = new HashMap<>(ROLES.length * 2);
+        for (String role : ROLES) {
+            List<Contributor> list = new ArrayList<>();
+            lists.add(list);
+            classified.put(role, list);
+        }
+
+        if (developersOrContributors == null || developersOrContributors.isEmpty()) {
+            return classified;
+        }
+
+        // a person listed twice is classified once
+        Set<Contributor> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean[] matched = new boolean[ROLES.length];
+        for (Contributor contributor : developersOrContributors) {
+            if (!seen.add(contributor)) {
+                continue;
+            }
+
+            List<String> roles = contributor.getRoles();
+            if (roles == null || roles.isEmpty()) {
+                lists.get(UNKNOWN).add(contributor);
+                continue;
+            }
+
+            // the person is listed once per role even if several of its roles match it
+            for (String role : roles) {
+                int index = indexOf(role.toLowerCase(Locale.ENGLISH));
+                if (index != EMERITUS) {
+                    matched[index] = true;
+                }
+            }
+            for (int i = 0; i < matched.length; i++) {
+                if (matched[i]) {
+                    lists.get(i).add(contributor);
+                    matched[i] = false;
+                }
+            }
+        }
+
+        return classified;
+    }
+
+    private int indexOf(String role) {
+        for (int i = 0; i < keywords.length; i++) {
+            if (role.contains(keywords[i])) {
+                return i;
+            }
+        }
+        return role.contains(emeritus) ? EMERITUS : UNKNOWN;
+    }
+
+    private static String getLowerCaseString(I18N i18n, Locale locale, String key) {
+        return i18n.getString("doap-person", locale, key).toLowerCase(Locale.ENGLISH);
+    }
+}
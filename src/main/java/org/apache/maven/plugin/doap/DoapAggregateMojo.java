@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generate the DOAP files of all the projects of the reactor in one execution, with a pool of worker threads.
+ * <p>
+ * The configuration is the one of the <code>generate</code> goal, evaluated for each project: the configuration of
+ * the plugin in the POM of the project, and of its execution with the same ID, overrides the configuration of this
+ * execution, and the expressions like <code>${project.name}</code> are evaluated with the project. The projects share
+ * the repository metadata, the remote and SCM repositories and the release existence caches resolved by the others. A
+ * catalog with the projects of all the DOAP files and their organizations, merged by name and homepage, can be
+ * written too.
+ * </p>
+ * <p>
+ * <b>Note:</b> the configuration of this execution is interpolated by Maven with the project running the goal, so a
+ * project not configuring the plugin in its POM, e.g. not inheriting the configuration, gets the values of the
+ * project running the goal. The <code>artifact</code>, <code>artifacts</code> and <code>artifactsFile</code>
+ * parameters are ignored.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+@Mojo(name = "aggregate", aggregator = true, threadSafe = true)
+public class DoapAggregateMojo extends DoapMojo {
+    /**
+     * The projects of the reactor.
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    private List<MavenProject> reactorProjects;
+
+    /**
+     * The catalog of all the DOAP files of the reactor, as one RDF/XML file. The catalog is not written if not set.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.catalogFile")
+    private File catalogFile;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (isSkip()) {
+            getLog().info("Skipping DOAP generation");
+            return;
+        }
+
+        try {
+            List<File> doapFiles = generateAll();
+            if (catalogFile != null) {
+                writeCatalog(doapFiles);
+            }
+        } finally {
+            logStatistics();
+        }
+    }
+
+    /**
+     * @return the DOAP files of the projects, in the order of the reactor
+     * @throws MojoExecutionException if the DOAP file of a project could not be generated
+     */
+    private List<File> generateAll() throws MojoExecutionException {
+        // the configuration is evaluated before the generations start
+        List<DoapMojo> executions = new ArrayList<>(reactorProjects.size());
+        for (MavenProject module : reactorProjects) {
+            executions.add(forModule(module));
+        }
+
+        int threads = getThreads();
+        getLog().info("Generating the DOAP files of " + executions.size() + " projects with " + threads + " threads");
+
+        List<Future<File>> futures = new ArrayList<>(executions.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, executions.size())));
+        try {
+            for (DoapMojo execution : executions) {
+                futures.add(executor.submit(execution::generate));
+            }
+
+            List<File> doapFiles = new ArrayList<>(futures.size());
+            MojoExecutionException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    doapFiles.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    getLog().error("Unable to generate the DOAP file of " + reactorProjects.get(i).getId() + ": "
+                            + cause.getMessage());
+                    if (failure == null) {
+                        failure = cause instanceof MojoExecutionException
+                                ? (MojoExecutionException) cause
+                                : new MojoExecutionException(cause.getMessage(), cause);
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+            return doapFiles;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while generating the DOAP files", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param doapFiles not null
+     * @throws MojoExecutionException if the catalog could not be written
+     */
+    private void writeCatalog(List<File> doapFiles) throws MojoExecutionException {
+        DoapCatalog catalog = new DoapCatalog(getLog());
+        for (File doapFile : doapFiles) {
+            catalog.add(doapFile);
+        }
+        int organizations = catalog.mergeOrganizations();
+
+        try {
+            if (catalog.write(catalogFile)) {
+                getLog().info("Wrote the DOAP catalog " + catalogFile.getAbsolutePath() + " with " + catalog.size()
+                        + " projects and " + organizations + " organizations");
+            } else {
+                getLog().info("The DOAP catalog " + catalogFile.getAbsolutePath() + " is unchanged, not written.");
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error writing the DOAP catalog " + catalogFile.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.RDFReader;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.impl.RDFDefaultErrorHandler;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A catalog of the DOAP files of the modules of a reactor, written as one RDF document with all their projects.
+ * <p>
+ * The blank nodes of each DOAP file stay distinct in the catalog, except the organizations: an organization with
+ * the same name and homepage in several modules is one organization of the catalog, with the members of all the
+ * modules.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class DoapCatalog {
+    private final Model model = ModelFactory.createDefaultModel();
+
+    private final Log log;
+
+    private int size;
+
+    /**
+     * @param log not null
+     */
+    DoapCatalog(Log log) {
+        this.log = log;
+    }
+
+    /**
+     * Add the content of the DOAP file of a module. An invalid file is ignored with a warning.
+     *
+     * @param doapFile not null
+     * @return <code>true</code> if the file was added
+     */
+    boolean add(File doapFile) {
+        Model module = ModelFactory.createDefaultModel();
+        RDFReader r = module.getReader("RDF/XML");
+        final List<String> errors = new ArrayList<>();
+        r.setErrorHandler(new RDFDefaultErrorHandler() {
+            @Override
+            public void error(Exception e) {
+                errors.add(e.getMessage());
+            }
+
+            @Override
+            public void fatalError(Exception e) {
+                errors.add(e.getMessage());
+            }
+        });
+
+        try (InputStream in = Files.newInputStream(doapFile.toPath())) {
+            r.read(module, in, doapFile.toURI().toString());
+        } catch (IOException | RuntimeException e) {
+            errors.add(e.getMessage());
+        }
+
+        if (!errors.isEmpty()) {
+            log.warn("Unable to add the DOAP file " + doapFile + " to the catalog: " + errors.get(0));
+            return false;
+        }
+
+        model.setNsPrefixes(module.getNsPrefixMap());
+        model.add(module);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the number of DOAP files added
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Merge the organizations with the same name and homepage.
+     *
+     * @return the number of organizations of the catalog
+     */
+    int mergeOrganizations() {
+        Resource organizationType = model.createResource(DoapUtil.FOAF_NAMESPACE_URI + "Organization");
+        Property name = model.createProperty(DoapUtil.FOAF_NAMESPACE_URI, "name");
+        Property homepage = model.createProperty(DoapUtil.FOAF_NAMESPACE_URI, "homepage");
+
+        Map<String, Resource> organizations = new HashMap<>();
+        for (Resource organization : model.listSubjectsWithProperty(RDF.type, organizationType).toList()) {
+            String key =
+                    toString(organization.getProperty(name)) + '\n' + toString(organization.getProperty(homepage));
+            Resource merged = organizations.putIfAbsent(key, organization);
+            if (merged == null || !organization.isAnon()) {
+                continue;
+            }
+
+            for (Statement statement : organization.listProperties().toList()) {
+                model.add(merged, statement.getPredicate(), statement.getObject());
+                model.remove(statement);
+            }
+            for (Statement statement : model.listStatements(null, null, organization).toList()) {
+                model.add(statement.getSubject(), statement.getPredicate(), merged);
+                model.remove(statement);
+            }
+        }
+        return organizations.size();
+    }
+
+    /**
+     * Write the catalog, only if its content changed.
+     *
+     * @param catalogFile not null
+     * @return <code>true</code> if the file was written
+     * @throws IOException if any
+     */
+    boolean write(File catalogFile) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        model.write(content, "RDF/XML-ABBREV");
+        return DoapUtil.writeIfChanged(catalogFile, content.toByteArray());
+    }
+
+    private static String toString(Statement statement) {
+        if (statement == null) {
+            return "";
+        }
+        RDFNode node = statement.getObject();
+        return node.isLiteral() ? node.asLiteral().getLexicalForm() : node.toString();
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
+import org.codehaus.plexus.util.xml.XMLWriter;
+
+/**
+ * The content of a DOAP file, collected from the project and the plugin options before it is written.
+ * <p>
+ * A document is an immutable tree of elements, texts and markups, like comments. It is built by the
+ * <code>write*</code> methods of the mojo through a {@link Builder}, then rendered to any {@link XMLWriter}: the
+ * collection of the content, with its validation and network calls, is done once, and the document can be compared,
+ * kept or rendered several times. Two documents are equal if they render the same XML.
+ * </p>
+ * <p>
+ * A section can be collected concurrently: its place is reserved with {@link Builder#reserve()}, and the slot is
+ * filled with the section, built by its own builder, before the document is built.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+final class DoapDocument {
+    private final String encoding;
+
+    private final List<Node> nodes;
+
+    private DoapDocument(String encoding, List<Node> nodes) {
+        this.encoding = encoding;
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+    }
+
+    /**
+     * @return the encoding of the XML declaration, could be null
+     */
+    String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return the top level nodes of the document, not null
+     */
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Render the document as pretty printed XML.
+     *
+     * @param w not null
+     */
+    void render(Writer w) {
+        render(new PrettyPrintXMLWriter(w, encoding, null));
+    }
+
+    /**
+     * @param writer not null
+     */
+    void render(XMLWriter writer) {
+        for (Node node : nodes) {
+            node.render(writer);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DoapDocument)) {
+            return false;
+        }
+        DoapDocument other = (DoapDocument) obj;
+        return Objects.equals(encoding, other.encoding) && nodes.equals(other.nodes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(encoding, nodes);
+    }
+
+    /**
+     * A node of the document.
+     */
+    abstract static class Node {
+        abstract void render(XMLWriter writer);
+    }
+
+    /**
+     * An element, with its attributes in the order they were added.
+     */
+    static final class Element extends Node {
+        private final String name;
+
+        private final Map<String, String> attributes;
+
+        private final List<Node> children;
+
+        Element(String name, Map<String, String> attributes, List<Node> children) {
+            this.name = name;
+            this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        List<Node> getChildren() {
+            return children;
+        }
+
+        @Override
+        void render(XMLWriter writer) {
+            writer.startElement(name);
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writer.addAttribute(attribute.getKey(), attribute.getValue());
+            }
+            for (Node child : children) {
+                child.render(writer);
+            }
+            writer.endElement();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Element)) {
+                return false;
+            }
+            Element other = (Element) obj;
+            // the order of the attributes is part of the rendered XML
+            return name.equals(other.name)
+                    && new ArrayList<>(attributes.entrySet()).equals(new ArrayList<>(other.attributes.entrySet()))
+                    && children.equals(other.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, attributes, children);
+        }
+
+        @Override
+        public String toString() {
+            return "<" + name + ">";
+        }
+    }
+
+    /**
+     * A text, escaped when rendered.
+     */
+    static final class Text extends Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        @Override
+        void render(XMLWriter writer) {
+            writer.writeText(text);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Text && text.equals(((Text) obj).text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * A markup, like a comment or a line break, rendered as is.
+     */
+    static final class Markup extends Node {
+        private final String markup;
+
+        Markup(String markup) {
+            this.markup = markup;
+        }
+
+        @Override
+        void render(XMLWriter writer) {
+            writer.writeMarkup(markup);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Markup && markup.equals(((Markup) obj).markup);
+        }
+
+        @Override
+        public int hashCode() {
+            return markup.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return markup;
+        }
+    }
+
+    /**
+     * The place of a section collected later, like a section collected by another thread. A slot is filled once, and
+     * replaced by the nodes of its section when the document is built.
+     */
+    static final class Slot extends Node {
+        private DoapDocument fragment;
+
+        private Slot() {}
+
+        /**
+         * @param fragment the section, not null
+         * @throws IllegalStateException if the slot is already filled
+         */
+        void fill(DoapDocument fragment) {
+            if (this.fragment != null) {
+                throw new IllegalStateException("The slot is already filled");
+            }
+            this.fragment = fragment;
+        }
+
+        @Override
+        void render(XMLWriter writer) {
+            // never part of a built document
+            throw new IllegalStateException("The slot is not resolved");
+        }
+    }
+
+    /**
+     * Build a document from the calls of the {@link XMLWriter} methods. Not thread-safe.
+     */
+    static final class Builder implements XMLWriter {
+        private final String encoding;
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private final Deque<OpenElement> openElements = new ArrayDeque<>();
+
+        private final List<Slot> slots = new ArrayList<>();
+
+        /**
+         * @param encoding the encoding of the XML declaration, could be null
+         */
+        Builder(String encoding) {
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void startElement(String name) {
+            openElements.push(new OpenElement(name));
+        }
+
+        @Override
+        public void addAttribute(String key, String value) {
+            OpenElement element = openElements.peek();
+            if (element == null || !element.children.isEmpty()) {
+                throw new IllegalStateException("The attribute " + key + " should be added to an element before its"
+                        + " content");
+            }
+            element.attributes.put(key, value);
+        }
+
+        @Override
+        public void writeText(String text) {
+            add(new Text(text));
+        }
+
+        @Override
+        public void writeMarkup(String text) {
+            add(new Markup(text));
+        }
+
+        @Override
+        public void endElement() {
+            if (openElements.isEmpty()) {
+                throw new IllegalStateException("No element to end");
+            }
+            OpenElement element = openElements.pop();
+            add(new Element(element.name, element.attributes, element.children));
+        }
+
+        /**
+         * Add the nodes of a document built separately, like a section collected by another thread.
+         *
+         * @param fragment not null
+         */
+        void append(DoapDocument fragment) {
+            for (Node node : fragment.nodes) {
+                add(node);
+            }
+        }
+
+        /**
+         * Reserve the place of a section collected later, to be filled before the document is built.
+         *
+         * @return the slot of the section
+         */
+        Slot reserve() {
+            Slot slot = new Slot();
+            slots.add(slot);
+            add(slot);
+            return slot;
+        }
+
+        /**
+         * @return the document
+         * @throws IllegalStateException if an element is not ended or a slot is not filled
+         */
+        DoapDocument build() {
+            if (!openElements.isEmpty()) {
+                throw new IllegalStateException("The element " + openElements.peek().name + " is not ended");
+            }
+            for (Slot slot : slots) {
+                if (slot.fragment == null) {
+                    throw new IllegalStateException("A reserved section is not filled");
+                }
+            }
+            return new DoapDocument(encoding, slots.isEmpty() ? nodes : resolve(nodes));
+        }
+
+        /**
+         * @param nodes not null
+         * @return the nodes with the slots replaced by the nodes of their sections
+         */
+        private static List<Node> resolve(List<Node> nodes) {
+            List<Node> resolved = new ArrayList<>(nodes.size());
+            for (Node node : nodes) {
+                if (node instanceof Slot) {
+                    resolved.addAll(((Slot) node).fragment.nodes);
+                } else if (node instanceof Element) {
+                    Element element = (Element) node;
+                    resolved.add(new Element(element.name, element.attributes, resolve(element.children)));
+                } else {
+                    resolved.add(node);
+                }
+            }
+            return resolved;
+        }
+
+        private void add(Node node) {
+            OpenElement element = openElements.peek();
+            if (element != null) {
+                element.children.add(node);
+            } else {
+                nodes.add(node);
+            }
+        }
+
+        /** An element being built. */
+        private static final class OpenElement {
+            private final String name;
+
+            private final Map<String, String> attributes = new LinkedHashMap<>();
+
+            private final List<Node> children = new ArrayList<>();
+
+            OpenElement(String name) {
+                this.name = name;
+            }
+        }
+    }
+}
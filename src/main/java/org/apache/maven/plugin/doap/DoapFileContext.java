@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+
+/**
+ * The state of the DOAP file being written: the organizations of its persons, its RDF blank node IDs and the
+ * interpolators of its projects.
+ * <p>
+ * A context is created for each DOAP file, so that nothing is shared between the executions of a parallel build.
+ * Not thread-safe, a context is only used by the execution which created it.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class DoapFileContext {
+    private final boolean reproducible;
+
+    private final Map<String, DoapUtil.Organization> organizations = new LinkedHashMap<>();
+
+    private final Set<String> nodeIds = new HashSet<>();
+
+    private final Map<MavenProject, DoapInterpolator> interpolators = new IdentityHashMap<>();
+
+    // unique RDF blank node index scoped internal to the DOAP file
+    private int nodeNumber = 1;
+
+    /**
+     * @param reproducible <code>true</code> if the blank node IDs should be derived from the content of the nodes
+     */
+    DoapFileContext(boolean reproducible) {
+        this.reproducible = reproducible;
+    }
+
+    /**
+     * Put an organization from the pom file in the organization list.
+     *
+     * @param name from the pom file (e.g. Yoyodyne)
+     * @param url from the pom file (e.g. http://yoyodyne.example.org/about)
+     * @return the existing organization if a duplicate, or a new one
+     */
+    DoapUtil.Organization addOrganization(String name, String url) {
+        return organizations.computeIfAbsent(name, n -> new DoapUtil.Organization(n, url));
+    }
+
+    /**
+     * @return the organizations that people are members of, in the order they were added
+     */
+    List<DoapUtil.Organization> getOrganizations() {
+        return new ArrayList<>(organizations.values());
+    }
+
+    /**
+     * Get a unique (within the DOAP file) RDF blank node ID. In a reproducible file, the ID is derived from the
+     * content of the node, see {@link DoapUtil#getContentNodeId(String, String...)}.
+     *
+     * @param first the first property of the node, could be null
+     * @param rest the other properties of the node, not null
+     * @return the nodeID
+     * @see <a href="http://www.w3.org/TR/rdf-syntax-grammar/#section-Syntax-blank-nodes">
+     *      http://www.w3.org/TR/rdf-syntax-grammar/#section-Syntax-blank-nodes</a>
+     */
+    String newNodeId(String first, String... rest) {
+        if (!reproducible) {
+            return "b" + nodeNumber++;
+        }
+
+        String base = DoapUtil.getContentNodeId(first, rest);
+        String nodeId = base;
+        // the same person listed twice is still two nodes
+        for (int i = 2; !nodeIds.add(nodeId); i++) {
+            nodeId = base + "-" + i;
+        }
+        return nodeId;
+    }
+
+    /**
+     * @param project not null
+     * @param settings could be null
+     * @return the interpolator of the project, created once by DOAP file
+     */
+    DoapInterpolator getInterpolator(MavenProject project, Settings settings) {
+        return interpolators.computeIfAbsent(project, p -> new DoapInterpolator(p, settings));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.interpolation.EnvarBasedValueSource;
+import org.codehaus.plexus.interpolation.InterpolationException;
+import org.codehaus.plexus.interpolation.ObjectBasedValueSource;
+import org.codehaus.plexus.interpolation.PrefixedObjectValueSource;
+import org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
+import org.codehaus.plexus.interpolation.RegexBasedInterpolator;
+
+/**
+ * Interpolates the values of a DOAP file with a project and the settings.
+ * <p>
+ * The value sources, including the snapshot of the environment, are built once, and the interpolated values are
+ * memoized: an instance should only live as long as the generation of one DOAP file, while the project does not
+ * change. Not thread-safe.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class DoapInterpolator {
+    private final RegexBasedInterpolator interpolator = new RegexBasedInterpolator();
+
+    /** Interpolated values by raw value, null if the interpolation doesn't work. */
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * @param project not null
+     * @param settings could be null
+     */
+    DoapInterpolator(final MavenProject project, Settings settings) {
+        if (project == null) {
+            throw new IllegalArgumentException("project is required");
+        }
+
+        try {
+            interpolator.addValueSource(new EnvarBasedValueSource());
+        } catch (IOException e) {
+            // ignore
+        }
+        interpolator.addValueSource(new PropertiesBasedValueSource(System.getProperties()));
+        interpolator.addValueSource(new PropertiesBasedValueSource(project.getProperties()));
+        interpolator.addValueSource(new PrefixedObjectValueSource("project", project));
+        interpolator.addValueSource(new PrefixedObjectValueSource("pom", project));
+        interpolator.addValueSource(new ObjectBasedValueSource(project) {
+            @Override
+            public Object getValue(String expression) {
+                try {
+                    return DoapUtil.ReflectionValueExtractor.evaluate(expression, project, true);
+                } catch (Exception e) {
+                    addFeedback("Failed to extract \'" + expression + "\' from: " + project, e);
+                }
+
+                return null;
+            }
+        });
+
+        if (settings != null) {
+            interpolator.addValueSource(new PrefixedObjectValueSource("settings", settings));
+        }
+    }
+
+    /**
+     * @param value could be null
+     * @return the value trimmed and interpolated or null if the interpolation doesn't work
+     * @see DoapUtil#interpolate(String, MavenProject, Settings)
+     */
+    String interpolate(String value) {
+        if (value == null) {
+            return value;
+        }
+
+        if (!value.contains("${")) {
+            return value.trim();
+        }
+
+        if (values.containsKey(value)) {
+            return values.get(value);
+        }
+
+        String interpolatedValue = value;
+        try {
+            interpolatedValue = interpolator.interpolate(value).trim();
+        } catch (InterpolationException e) {
+            // ignore
+        }
+
+        if (interpolatedValue.startsWith("${")) {
+            interpolatedValue = null;
+        }
+
+        values.put(value, interpolatedValue);
+        return interpolatedValue;
+    }
+}
@@ -19,42 +19,54 @@
 package org.apache.maven.plugin.doap;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.repository.ArtifactRepository;
-import org.apache.maven.artifact.repository.metadata.ArtifactRepositoryMetadata;
-import org.apache.maven.artifact.repository.metadata.RepositoryMetadata;
-import org.apache.maven.artifact.repository.metadata.RepositoryMetadataManager;
-import org.apache.maven.artifact.repository.metadata.RepositoryMetadataResolutionException;
+import org.apache.maven.artifact.repository.metadata.Versioning;
 import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
 import org.apache.maven.artifact.resolver.ArtifactResolver;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Contributor;
 import org.apache.maven.model.Developer;
 import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
 import org.apache.maven.plugin.doap.options.ASFExtOptions;
 import org.apache.maven.plugin.doap.options.ASFExtOptionsUtil;
 import org.apache.maven.plugin.doap.options.DoapArtifact;
@@ -66,25 +78,22 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
-import org.apache.maven.scm.manager.NoSuchScmProviderException;
 import org.apache.maven.scm.manager.ScmManager;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
 import org.apache.maven.scm.repository.ScmRepository;
-import org.apache.maven.scm.repository.ScmRepositoryException;
 import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.component.configurator.ComponentConfigurationException;
+import org.codehaus.plexus.component.configurator.ComponentConfigurator;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
 import org.codehaus.plexus.i18n.I18N;
-import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.WriterFactory;
-import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.impl.RepositoryConnectorProvider;
-import org.eclipse.aether.repository.RemoteRepository;
-import org.eclipse.aether.spi.connector.ArtifactDownload;
-import org.eclipse.aether.spi.connector.RepositoryConnector;
-import org.eclipse.aether.transfer.NoRepositoryConnectorException;
 
 /**
  * <p>
@@ -98,30 +107,23 @@ import org.eclipse.aether.transfer.NoRepositoryConnectorException;
  * @author <a href="mailto:vincent.siveton@gmail.com">Vincent Siveton</a>
  * @since 1.0-beta-1
  */
-@Mojo(name = "generate")
-public class DoapMojo extends AbstractMojo {
+@Mojo(name = "generate", threadSafe = true)
+public class DoapMojo extends AbstractMojo implements Cloneable {
     /**
-     * UTC Time Zone.
+     * Date format for <lastUpdated/> tag in the repository metadata, i.e.: yyyyMMddHHmmss in UTC.
      */
-    private static final TimeZone UTC_TIME_ZONE = TimeZone.getTimeZone("UTC");
+    private static final DateTimeFormatter REPOSITORY_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.ENGLISH);
 
     /**
-     * Date format for <lastUpdated/> tag in the repository metadata, i.e.: yyyyMMddHHmmss.
+     * Date format for DOAP file, i.e. ISO-8601 YYYY-MM-DD.
      */
-    private static final DateFormat REPOSITORY_DATE_FORMAT;
+    private static final DateTimeFormatter DOAP_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.ENGLISH);
 
     /**
-     * Date format for DOAP file, i.e. ISO-8601 YYYY-MM-DD.
+     * Pattern of an ISO-8601 date, to reject a date given as <code>releasesSince</code>.
      */
-    private static final DateFormat DOAP_DATE_FORMAT;
-
-    static {
-        REPOSITORY_DATE_FORMAT = new SimpleDateFormat("yyyyMMddHHmmss", Locale.ENGLISH);
-        REPOSITORY_DATE_FORMAT.setTimeZone(UTC_TIME_ZONE);
-
-        DOAP_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
-        DOAP_DATE_FORMAT.setTimeZone(UTC_TIME_ZONE);
-    }
+    private static final Pattern RELEASE_DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
 
     // ----------------------------------------------------------------------
     // Mojo components
@@ -143,24 +145,33 @@ public class DoapMojo extends AbstractMojo {
     @Inject
     private ArtifactFactory artifactFactory;
 
+    @Inject
+    private RepositorySystem repositorySystem;
+
     /**
-     * Used to resolve artifacts.
+     * Internationalization component.
      *
      * @since 1.0
      */
     @Inject
-    private RepositoryMetadataManager repositoryMetadataManager;
+    private I18N i18n;
 
+    /**
+     * The results shared by the DOAP generations of the Maven session.
+     *
+     * @since 3.0.0
+     */
     @Inject
-    private RepositorySystem repositorySystem;
+    private DoapSessionCache sessionCache;
 
     /**
-     * Internationalization component.
+     * Configures the execution of each module of the <code>aggregate</code> goal.
      *
-     * @since 1.0
+     * @since 3.0.0
      */
     @Inject
-    private I18N i18n;
+    @Named("basic")
+    private ComponentConfigurator configurator;
 
     // ----------------------------------------------------------------------
     // Mojo parameters
@@ -175,6 +186,23 @@ public class DoapMojo extends AbstractMojo {
     @Parameter(defaultValue = "${repositorySystemSession}", readonly = true)
     private RepositorySystemSession repositorySystemSession;
 
+    /**
+     * The Maven session, to log the statistics of the session cache after the last DOAP generation of the build.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
+     * The execution of this goal, to know the DOAP generations of the build and to evaluate its configuration for
+     * each project.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
     /**
      * The name of the DOAP file that will be generated.
      */
@@ -367,6 +395,48 @@ public class DoapMojo extends AbstractMojo {
     @Parameter
     private DoapArtifact artifact;
 
+    /**
+     * The artifacts to generate the DOAP files against, in batch mode. Example:
+     *
+     * <pre>
+     * &lt;artifacts&gt;
+     * &nbsp;&nbsp;&lt;artifact&gt;
+     * &nbsp;&nbsp;&nbsp;&nbsp;&lt;groupId&gt;given-artifact-groupId&lt;/groupId&gt;
+     * &nbsp;&nbsp;&nbsp;&nbsp;&lt;artifactId&gt;given-artifact-artifactId&lt;/artifactId&gt;
+     * &nbsp;&nbsp;&nbsp;&nbsp;&lt;version&gt;given-artifact-version&lt;/version&gt;
+     * &nbsp;&nbsp;&lt;/artifact&gt;
+     * &lt;/artifacts&gt;
+     * </pre>
+     *
+     * The DOAP files of the artifacts, and of the <code>&lt;artifact/&gt;</code> parameter if any, are generated
+     * concurrently with at most <code>threads</code> artifacts at a time. An artifact which could not be resolved is
+     * skipped and the failure of an artifact does not stop the others: a summary is logged at the end, and the
+     * execution fails if any artifact failed. The DOAP file of the current project is not generated.
+     *
+     * @since 3.0.0
+     */
+    @Parameter
+    private DoapArtifact[] artifacts;
+
+    /**
+     * A file with more artifacts of the batch mode, see <code>&lt;artifacts/&gt;</code>, one by line as
+     * <code>groupId:artifactId:version[:doapFileName]</code>. The empty lines and the lines starting with
+     * <code>#</code> are ignored.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.artifactsFile")
+    private File artifactsFile;
+
+    /**
+     * The maximum number of DOAP files generated concurrently, by the <code>aggregate</code> goal or for the
+     * artifacts of the batch mode.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.threads", defaultValue = "4")
+    private int threads;
+
     /**
      * Specifies whether the DOAP generation should be skipped.
      *
@@ -398,6 +468,180 @@ public class DoapMojo extends AbstractMojo {
     @Parameter(property = "extOptions")
     private ExtOptions[] extOptions;
 
+    /**
+     * The maximum number of remote repositories probed concurrently for the DOAP release files. The existence checks
+     * against one repository are sent in batches over one connection. The repository metadata are resolved by
+     * Resolver, with its own <code>aether.metadataResolver.threads</code> setting.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseProbeParallelism", defaultValue = "8")
+    private int releaseProbeParallelism;
+
+    /**
+     * Specifies whether the release file existence checks should be cached between builds. Found release files are
+     * cached forever, as released artifacts are immutable, missing ones for <code>releaseCacheNegativeTtl</code>
+     * seconds.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.useReleaseCache", defaultValue = "true")
+    private boolean useReleaseCache;
+
+    /**
+     * The directory of the release file existence cache and of the revalidated repository metadata. By default, the
+     * caches are kept in the <code>.cache/maven-doap-plugin</code> directory of the local repository, shared by all
+     * the builds using it.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseCacheDirectory")
+    private File releaseCacheDirectory;
+
+    /**
+     * The time to live, in seconds, of a cached missing release file. A negative value means that missing release
+     * files are cached forever.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseCacheNegativeTtl", defaultValue = "86400")
+    private long releaseCacheNegativeTtl;
+
+    /**
+     * Specifies whether the repository metadata of the HTTP repositories should be revalidated with its
+     * <code>ETag</code> and <code>Last-Modified</code> validators, instead of being resolved by Maven. The metadata is
+     * stored in the <code>metadata</code> directory of the <code>releaseCacheDirectory</code>, so an unchanged metadata
+     * only costs a <code>304 Not Modified</code> round trip. When the metadata of all the repositories is unchanged,
+     * the releases listed by the previous DOAP file are reused without probing them, with or without
+     * <code>incrementalReleases</code>. Otherwise, all the releases are probed, unless <code>incrementalReleases</code>
+     * is set.
+     * <p>
+     * The metadata is fetched without the Maven transport: the repositories with authentication, or with a transport
+     * configuration like HTTP headers, TLS settings or timeouts of their server, are always resolved by Maven.
+     * </p>
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.revalidateMetadata", defaultValue = "false")
+    private boolean revalidateMetadata;
+
+    /**
+     * The maximum number of releases listed in the DOAP file, the most recent ones. <code>0</code> lists all the
+     * releases.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.maxReleases", defaultValue = "0")
+    private int maxReleases;
+
+    /**
+     * The oldest version listed in the DOAP file, i.e. <code>2.0</code>. The releases are only known by their
+     * version before the repositories are probed, so a date is not supported.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releasesSince")
+    private String releasesSince;
+
+    /**
+     * A version range restricting the releases listed in the DOAP file, i.e. <code>[2.0,3.0)</code>.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseVersionRange")
+    private String releaseVersionRange;
+
+    /**
+     * Specifies whether the pre-releases, i.e. the alpha, beta, milestone and release candidate versions, should be
+     * excluded from the DOAP file.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.excludePreReleases", defaultValue = "false")
+    private boolean excludePreReleases;
+
+    /**
+     * The number of consecutive failed requests to a remote repository after which the repository is skipped for
+     * the rest of the release discovery, i.e. an unreachable mirror. <code>0</code> never skips a repository.
+     * <p>
+     * The threshold also sizes the batches of existence checks sent to each repository: the first batch holds
+     * <code>releaseProbeFailureThreshold</code> releases and each next batch doubles, e.g. 3, 6, 12... by default. An
+     * unreachable repository then costs a single small batch, but a long release history takes a few more round trips
+     * than a single batch: <code>0</code> probes all the releases of a repository in one batch.
+     * </p>
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseProbeFailureThreshold", defaultValue = "3")
+    private int releaseProbeFailureThreshold;
+
+    /**
+     * The time budget, in seconds, of the release discovery of a DOAP file, from the resolution of the repository
+     * metadata by the up-to-date check to the last release probed. When exhausted, only the releases confirmed so far
+     * are listed in the DOAP file, with a warning. <code>0</code> means no limit.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseDiscoveryTimeout", defaultValue = "0")
+    private int releaseDiscoveryTimeout;
+
+    /**
+     * Specifies whether the releases of the previously generated DOAP file should be reused. The releases already
+     * listed with a file release are trusted as is, only the new versions of the repository metadata are discovered.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.incrementalReleases", defaultValue = "false")
+    private boolean incrementalReleases;
+
+    /**
+     * Specifies whether the published checksum of each release file, <code>.sha512</code> or <code>.sha1</code>,
+     * should be written as a SPDX checksum of the release. The <code>.sha512</code> files are downloaded in the same
+     * batch as the release file existence checks, so each probed release costs two requests instead of one. The
+     * <code>.sha1</code> files are only downloaded, in one more batch, for the releases found without a
+     * <code>.sha512</code> file, i.e. up to three requests by release. With <code>useReleaseCache</code>, the
+     * checksums are cached with the releases, so they are only downloaded once.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.releaseChecksums", defaultValue = "false")
+    private boolean releaseChecksums;
+
+    /**
+     * Specifies whether the DOAP file should be generated only if its inputs changed since the previous generation:
+     * the POM, the plugin configuration, the values of the settings, system properties and environment variables
+     * referenced by <code>${...}</code> expressions, and the versions of the repository metadata. A fingerprint of
+     * the inputs is stored next to the DOAP file, and only after a complete release discovery.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.upToDateCheck", defaultValue = "false")
+    private boolean upToDateCheck;
+
+    /**
+     * Timestamp for reproducible output, either formatted as ISO-8601 <code>yyyy-MM-dd'T'HH:mm:ssXXX</code> or as the
+     * number of seconds since the epoch. When set, the DOAP file is byte-stable: its header is dated with this
+     * timestamp, the RDF blank node IDs are derived from the content and the organizations and extra vocabularies
+     * are sorted. An empty value or a single character disables the reproducible output.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(defaultValue = "${project.build.outputTimestamp}")
+    private String outputTimestamp;
+
+    /**
+     * Specifies whether the projects of the <code>&lt;artifact/&gt;</code> parameter should be cached between builds,
+     * in <code>.cache/maven-doap-plugin/descriptors</code> of the local repository. A cached project is used while
+     * the POM files of the artifact and its parents are unchanged in the local repository, without building it
+     * again. It only keeps the parts of the model used by default in a DOAP file, see
+     * {@link ProjectDescriptorCache#reduce(Model)}: other <code>${project.*}</code> expressions of the configuration
+     * are not resolved.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "doap.useDescriptorCache", defaultValue = "false")
+    private boolean useDescriptorCache;
+
     /**
      * All warn/error messages for the user.
      *
@@ -405,6 +649,79 @@ public class DoapMojo extends AbstractMojo {
      */
     private UserMessages messages = new UserMessages();
 
+    /**
+     * The releases of the previously generated DOAP file, null if neither incremental nor revalidating the
+     * metadata.
+     *
+     * @since 3.0.0
+     */
+    private PreviousReleases previousReleases;
+
+    /**
+     * The guard of the release discovery of the DOAP file, shared by the up-to-date check and the releases, so that
+     * both phases are bounded by one <code>releaseDiscoveryTimeout</code> and one failure circuit.
+     *
+     * @since 3.0.0
+     */
+    private ReleaseDiscoveryGuard releaseGuard;
+
+    /**
+     * Whether the versioning was already resolved by the up-to-date check, even incompletely.
+     *
+     * @since 3.0.0
+     */
+    private boolean releaseVersioningResolved;
+
+    /**
+     * The versioning resolved by the up-to-date check, only relevant if {@link #releaseVersioningResolved}.
+     *
+     * @since 3.0.0
+     */
+    private Versioning releaseVersioning;
+
+    /**
+     * Whether all the repositories answered that the metadata of the project is unchanged since the previous build.
+     *
+     * @since 3.0.0
+     */
+    private boolean metadataUnchanged;
+
+    /**
+     * Whether the releases written are complete, i.e. no repository failed and the discovery did not time out.
+     *
+     * @since 3.0.0
+     */
+    private boolean releasesComplete;
+
+    /**
+     * The date of a reproducible DOAP file, null if not reproducible.
+     *
+     * @since 3.0.0
+     */
+    private Date outputDate;
+
+    /**
+     * Whether the ASF extensions are added to the DOAP file being written, i.e. if they are included by the
+     * <code>asfExtOptions</code> parameter or if the project is an ASF project.
+     *
+     * @since 3.0.0
+     */
+    private boolean asfIncluded;
+
+    /**
+     * The organizations, RDF blank node IDs and interpolators of the DOAP file being written.
+     *
+     * @since 3.0.0
+     */
+    private DoapFileContext fileContext;
+
+    /**
+     * The classifier of the persons by DOAP roles, with the English role keywords.
+     *
+     * @since 3.0.0
+     */
+    private ContributorRoleClassifier roleClassifier;
+
     // ----------------------------------------------------------------------
     // Public methods
     // ----------------------------------------------------------------------
@@ -413,22 +730,111 @@ public class DoapMojo extends AbstractMojo {
      * {@inheritDoc}
      */
     public void execute() throws MojoExecutionException {
-        if (skip) {
-            getLog().info("Skipping DOAP generation");
-            return;
+        try {
+            if (skip) {
+                getLog().info("Skipping DOAP generation");
+                return;
+            }
+
+            ArtifactBatch batch = createArtifactBatch();
+            if (batch != null) {
+                generateArtifacts(batch);
+            } else {
+                generate();
+            }
+        } finally {
+            // the last execution to finish, whatever the order of the projects in a parallel build
+            if (sessionCache.finishExecution(getExpectedExecutions(), getExecutionKey(project))) {
+                sessionCache.logStatistics(getLog());
+            }
         }
+    }
 
+    // ----------------------------------------------------------------------
+    // Package-private methods, used by the aggregate goal
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return <code>true</code> if the DOAP generation is skipped
+     * @since 3.0.0
+     */
+    boolean isSkip() {
+        return skip;
+    }
+
+    /**
+     * @return the maximum number of DOAP files generated concurrently
+     * @since 3.0.0
+     */
+    int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Log the hits and misses of the caches shared by the DOAP generations of the session.
+     *
+     * @since 3.0.0
+     */
+    void logStatistics() {
+        sessionCache.logStatistics(getLog());
+    }
+
+    /**
+     * Create the execution writing the DOAP file of a module. The whole configuration is evaluated again for the
+     * module, like Maven does for a goal run in the module: the configuration of the plugin in the POM of the module,
+     * with the one of its execution with the same ID, overrides the configuration of this mojo execution, and the
+     * expressions like <code>${project.name}</code> are evaluated with the module. The
+     * <code>&lt;artifact/&gt;</code> and batch parameters are ignored.
+     *
+     * @param module a project of the reactor, not null
+     * @return a new execution, sharing the components and the session cache of this execution
+     * @throws MojoExecutionException if the configuration could not be evaluated
+     * @since 3.0.0
+     */
+    DoapMojo forModule(MavenProject module) throws MojoExecutionException {
+        DoapMojo execution = copy();
+        ClassRealm realm = mojoExecution != null
+                ? mojoExecution.getMojoDescriptor().getPluginDescriptor().getClassRealm()
+                : null;
+        if (mojoExecution != null && mojoExecution.getConfiguration() != null && session != null && realm != null) {
+            MavenSession moduleSession = session.clone();
+            moduleSession.setCurrentProject(module);
+            Xpp3Dom configuration = Xpp3Dom.mergeXpp3Dom(
+                    getModuleConfiguration(module), new Xpp3Dom(mojoExecution.getConfiguration()));
+            try {
+                configurator.configureComponent(
+                        execution,
+                        new XmlPlexusConfiguration(configuration),
+                        new PluginParameterExpressionEvaluator(moduleSession, mojoExecution),
+                        realm);
+            } catch (ComponentConfigurationException e) {
+                throw new MojoExecutionException(
+                        "Unable to evaluate the configuration of " + module.getId() + ": " + e.getMessage(), e);
+            }
+        }
+        execution.project = module;
+        execution.remoteRepositories = module.getRemoteArtifactRepositories();
+        execution.artifact = null;
+        execution.artifacts = null;
+        execution.artifactsFile = null;
+        return execution;
+    }
+
+    /**
+     * Write the DOAP file of the given artifact, or of the current project.
+     *
+     * @return the DOAP file
+     * @throws MojoExecutionException if any
+     * @since 3.0.0
+     */
+    File generate() throws MojoExecutionException {
         // single artifact
         if (artifact != null) {
             MavenProject givenProject = getMavenProject(artifact);
             if (givenProject != null) {
-                File outDir = new File(outputDirectory);
-                if (!outDir.isAbsolute()) {
-                    outDir = new File(project.getBasedir(), outputDirectory);
-                }
-                File outFile = new File(outDir, artifact.getDoapFileName());
+                File outFile = getDoapFile(artifact);
                 writeDoapFile(givenProject, outFile);
-                return;
+                return outFile;
             }
         }
 
@@ -445,12 +851,209 @@ public class DoapMojo extends AbstractMojo {
             outFile = new File(outDir, doapFile);
         }
         writeDoapFile(project, outFile);
+        return outFile;
     }
 
     // ----------------------------------------------------------------------
     // Private methods
     // ----------------------------------------------------------------------
 
+    /**
+     * @return a copy of this execution, without the state of the DOAP file being written and without the artifacts of
+     *         the batch mode
+     */
+    private DoapMojo copy() {
+        DoapMojo execution;
+        try {
+            execution = (DoapMojo) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        execution.artifacts = null;
+        execution.artifactsFile = null;
+        execution.messages = execution.new UserMessages();
+        execution.fileContext = null;
+        return execution;
+    }
+
+    /**
+     * @return the artifacts of the batch mode, or <code>null</code> if not in batch mode
+     * @throws MojoExecutionException if the artifacts file could not be read
+     */
+    private ArtifactBatch createArtifactBatch() throws MojoExecutionException {
+        if ((artifacts == null || artifacts.length == 0) && artifactsFile == null) {
+            return null;
+        }
+
+        ArtifactBatch batch = new ArtifactBatch(getLog());
+        if (artifact != null) {
+            batch.add(artifact);
+        }
+        if (artifacts != null) {
+            for (DoapArtifact doapArtifact : artifacts) {
+                batch.add(doapArtifact);
+            }
+        }
+        if (artifactsFile != null) {
+            batch.read(artifactsFile);
+        }
+        return batch;
+    }
+
+    /**
+     * Write the DOAP files of the artifacts of the batch mode concurrently. The failure of an artifact is recorded
+     * without stopping the others.
+     *
+     * @param batch not null
+     * @throws MojoExecutionException if any artifact failed
+     */
+    private void generateArtifacts(ArtifactBatch batch) throws MojoExecutionException {
+        List<DoapArtifact> batchArtifacts = batch.getArtifacts();
+        getLog().info("Generating the DOAP files of " + batchArtifacts.size() + " artifacts with " + threads
+                + " threads");
+
+        List<Future<?>> futures = new ArrayList<>(batchArtifacts.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, batchArtifacts.size())));
+        try {
+            for (DoapArtifact doapArtifact : batchArtifacts) {
+                DoapMojo execution = copy();
+                execution.artifact = doapArtifact;
+                futures.add(executor.submit(() -> execution.generateArtifact(batch)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while generating the DOAP files of the artifacts", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException(
+                    "Error when generating the DOAP files of the artifacts: " + e.getCause().getMessage(),
+                    e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        batch.logSummary();
+        int failed = batch.count(ArtifactBatch.Status.FAILED);
+        if (failed > 0) {
+            throw new MojoExecutionException("The DOAP files of " + failed + " artifacts could not be generated, "
+                    + "see above.");
+        }
+    }
+
+    /**
+     * Write the DOAP file of the artifact of this execution, recording the outcome in the batch.
+     *
+     * @param batch not null
+     */
+    private void generateArtifact(ArtifactBatch batch) {
+        try {
+            MavenProject givenProject = getMavenProject(artifact);
+            if (givenProject == null) {
+                batch.record(artifact, ArtifactBatch.Status.SKIPPED, "invalid or unresolvable artifact, see above");
+                return;
+            }
+
+            writeDoapFile(givenProject, getDoapFile(artifact));
+            batch.record(artifact, ArtifactBatch.Status.GENERATED, null);
+        } catch (MojoExecutionException | RuntimeException e) {
+            if (getLog().isDebugEnabled()) {
+                getLog().debug(e.getMessage(), e);
+            }
+            batch.record(artifact, ArtifactBatch.Status.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * @param doapArtifact not null
+     * @return the DOAP file of the artifact, in the output directory
+     */
+    private File getDoapFile(DoapArtifact doapArtifact) {
+        File outDir = new File(outputDirectory);
+        if (!outDir.isAbsolute()) {
+            outDir = new File(project.getBasedir(), outputDirectory);
+        }
+        return new File(outDir, doapArtifact.getDoapFileName());
+    }
+
+    /**
+     * @param module not null
+     * @return the configuration of the parameters of this goal in the POM of the module, with the configuration of
+     *         the execution with the same ID, empty if the module does not configure the plugin
+     */
+    private Xpp3Dom getModuleConfiguration(MavenProject module) {
+        Xpp3Dom configuration = new Xpp3Dom("configuration");
+        String key = mojoExecution.getPlugin().getKey();
+        Plugin plugin = module.getPlugin(key);
+        if (plugin == null && module.getPluginManagement() != null) {
+            plugin = module.getPluginManagement().getPluginsAsMap().get(key);
+        }
+        if (plugin == null) {
+            return configuration;
+        }
+
+        Xpp3Dom pluginConfiguration = (Xpp3Dom) plugin.getConfiguration();
+        PluginExecution pluginExecution = plugin.getExecutionsAsMap().get(mojoExecution.getExecutionId());
+        if (pluginExecution != null && pluginExecution.getConfiguration() != null) {
+            pluginConfiguration = Xpp3Dom.mergeXpp3Dom(
+                    new Xpp3Dom((Xpp3Dom) pluginExecution.getConfiguration()),
+                    pluginConfiguration != null ? new Xpp3Dom(pluginConfiguration) : null);
+        }
+        if (pluginConfiguration == null) {
+            return configuration;
+        }
+
+        // the parameters of the other goals of the plugin are ignored, like Maven does
+        Map<String, ?> parameters = mojoExecution.getMojoDescriptor().getParameterMap();
+        for (Xpp3Dom child : pluginConfiguration.getChildren()) {
+            if (parameters.containsKey(child.getName())) {
+                configuration.addChild(new Xpp3Dom(child));
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * The executions of this goal expected in the build: the execution of each project of the reactor when the goal
+     * is given on the command line, or the executions of this goal bound in the build of the projects.
+     *
+     * @return the keys of the expected executions, including this one
+     */
+    private Set<String> getExpectedExecutions() {
+        Set<String> executions = new HashSet<>();
+        executions.add(getExecutionKey(project));
+        List<MavenProject> projects = session != null ? session.getProjects() : null;
+        if (projects == null || mojoExecution == null) {
+            return executions;
+        }
+
+        for (MavenProject reactorProject : projects) {
+            if (mojoExecution.getSource() == MojoExecution.Source.CLI) {
+                executions.add(getExecutionKey(reactorProject));
+                continue;
+            }
+
+            Plugin plugin = reactorProject.getPlugin(mojoExecution.getPlugin().getKey());
+            if (plugin != null) {
+                for (PluginExecution execution : plugin.getExecutions()) {
+                    if (execution.getGoals().contains(mojoExecution.getGoal())) {
+                        executions.add(reactorProject.getId() + "@" + execution.getId());
+                    }
+                }
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * @param executionProject not null
+     * @return the key of this execution in the given project
+     */
+    private String getExecutionKey(MavenProject executionProject) {
+        return executionProject.getId() + "@" + (mojoExecution != null ? mojoExecution.getExecutionId() : "");
+    }
+
     /**
      * @param artifact not null
      * @return the maven project for the given doap artifact
@@ -471,6 +1074,21 @@ public class DoapMojo extends AbstractMojo {
         getLog().info("Using artifact " + artifact.getGroupId() + ":" + artifact.getArtifactId() + ":"
                 + artifact.getVersion());
 
+        ProjectDescriptorCache descriptorCache = null;
+        if (useDescriptorCache) {
+            descriptorCache = new ProjectDescriptorCache(
+                    new File(localRepository.getBasedir(), ".cache/maven-doap-plugin/descriptors"),
+                    factory,
+                    localRepository,
+                    getLog());
+            MavenProject cached =
+                    descriptorCache.get(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+            if (cached != null) {
+                getLog().debug("Using the cached project descriptor of the artifact.");
+                return cached;
+            }
+        }
+
         try {
             Artifact art = factory.createProjectArtifact(
                     artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), Artifact.SCOPE_COMPILE);
@@ -481,6 +1099,10 @@ public class DoapMojo extends AbstractMojo {
 
                 resolver.resolve(art, remoteRepositories, localRepository);
 
+                if (descriptorCache != null) {
+                    descriptorCache.put(proj);
+                }
+
                 return proj;
             }
         } catch (ArtifactResolutionException e) {
@@ -506,35 +1128,86 @@ public class DoapMojo extends AbstractMojo {
         // Includes ASF extensions
         // ----------------------------------------------------------------------------
 
-        if (!asfExtOptions.isIncluded() && ASFExtOptionsUtil.isASFProject(project)) {
+        asfIncluded = asfExtOptions.isIncluded();
+        if (!asfIncluded && ASFExtOptionsUtil.isASFProject(project)) {
             getLog().info("This project is an ASF project, ASF Extensions to DOAP will be added.");
-            asfExtOptions.setIncluded(true);
+            asfIncluded = true;
         }
 
+        try {
+            outputDate = DoapUtil.parseOutputTimestamp(outputTimestamp);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        messages = new UserMessages();
+        fileContext = new DoapFileContext(outputDate != null);
+
         // ----------------------------------------------------------------------------
-        // setup pretty print xml writer
+        // Up-to-date check
         // ----------------------------------------------------------------------------
 
-        Writer w;
-        try {
-            if (!outputFile.getParentFile().exists()) {
-                FileUtils.mkdir(outputFile.getParentFile().getAbsolutePath());
+        releaseGuard =
+                new ReleaseDiscoveryGuard(releaseProbeFailureThreshold, releaseDiscoveryTimeout * 1000L, getLog());
+        releaseVersioningResolved = false;
+        releaseVersioning = null;
+        metadataUnchanged = false;
+        releasesComplete = true;
+        File fingerprintFile = getFingerprintFile(outputFile);
+        String fingerprint = null;
+        if (upToDateCheck) {
+            Versioning versioning = resolveVersioning(project, createLocalReleaseSource(), releaseGuard);
+            // reused by the releases even if incomplete, resolving again would only wait for the same failures
+            releaseVersioningResolved = true;
+            releaseVersioning = versioning;
+            if (releaseGuard.isComplete()) {
+                fingerprint = fingerprint(project, outputFile, versioning);
+                if (outputFile.isFile() && fingerprint.equals(InputFingerprint.read(fingerprintFile))) {
+                    getLog().info("The DOAP file " + outputFile.getAbsolutePath() + " is up to date.");
+                    return;
+                }
+            } else {
+                getLog().info("The release metadata could not be fully resolved, skipping the up-to-date check.");
             }
+        }
 
-            w = WriterFactory.newXmlWriter(outputFile);
-        } catch (IOException e) {
-            throw new MojoExecutionException("Error creating DOAP file " + outputFile.getAbsolutePath(), e);
+        // read before the file is overwritten
+        previousReleases = null;
+        if ((incrementalReleases || revalidateMetadata) && doapOptions.getXmlnsNamespaceURI() != null) {
+            previousReleases = PreviousReleases.read(outputFile, doapOptions.getXmlnsNamespaceURI(), getLog());
         }
 
+        // the releases are discovered while the other sections are collected
+        DoapDocument document;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
         try {
-            doWrite(project, outputFile, w);
+            UserMessages releaseMessages = new UserMessages();
+            Future<DoapDocument> releases = executor.submit(() -> collectReleases(project, releaseMessages));
+            document = collect(project, outputFile, releases);
+            messages.getWarnMessages().addAll(releaseMessages.getWarnMessages());
         } finally {
+            executor.shutdownNow();
+        }
 
-            try {
-                w.close();
-            } catch (IOException e) {
-                throw new MojoExecutionException("Error when closing the writer.", e);
+        // ----------------------------------------------------------------------------
+        // render with a pretty print xml writer
+        // ----------------------------------------------------------------------------
+
+        // rendered in memory, the file is only written if its content changed
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (Writer w = WriterFactory.newXmlWriter(content)) {
+            document.render(w);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error rendering DOAP file " + outputFile.getAbsolutePath(), e);
+        }
+
+        try {
+            if (DoapUtil.writeIfChanged(outputFile, content.toByteArray())) {
+                getLog().info("Wrote the DOAP file " + outputFile.getAbsolutePath());
+            } else {
+                getLog().info("The DOAP file " + outputFile.getAbsolutePath() + " is unchanged, not written.");
             }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error writing DOAP file " + outputFile.getAbsolutePath(), e);
         }
 
         if (!messages.getWarnMessages().isEmpty()) {
@@ -570,22 +1243,105 @@ public class DoapMojo extends AbstractMojo {
                 throw new MojoExecutionException("Error parsing the generated DOAP file, see above.");
             }
         }
+
+        // a later run should complete the releases
+        if (fingerprint != null && releasesComplete) {
+            try {
+                InputFingerprint.write(fingerprintFile, fingerprint);
+            } catch (IOException e) {
+                getLog().warn("Unable to write the fingerprint file " + fingerprintFile + ": " + e.getMessage());
+            }
+        } else if (fingerprintFile.exists() && !fingerprintFile.delete()) {
+            getLog().warn("Unable to delete the fingerprint file " + fingerprintFile);
+        }
+    }
+
+    /**
+     * @param outputFile the DOAP file, not null
+     * @return the file storing the fingerprint of the inputs of the DOAP file
+     * @since 3.0.0
+     */
+    private static File getFingerprintFile(File outputFile) {
+        return new File(outputFile.getParentFile(), "." + outputFile.getName() + ".fingerprint");
+    }
+
+    /**
+     * Compute the fingerprint of all the inputs of a DOAP file, including the interpolated values of the expressions
+     * found in the inputs.
+     *
+     * @param project not null
+     * @param outputFile not null
+     * @param versioning the resolved versioning, could be null
+     * @return the fingerprint, as an hexadecimal string
+     * @since 3.0.0
+     */
+    private String fingerprint(MavenProject project, File outputFile, Versioning versioning) {
+        InputFingerprint fingerprint = new InputFingerprint()
+                .add("pluginVersion", DoapUtil.getPluginVersion())
+                .add("outputFile", outputFile)
+                .addModel("project", project.getModel())
+                .add("lang", lang)
+                .add("about", about)
+                .add("category", category)
+                .add("language", language)
+                .addBean("doapOptions", doapOptions)
+                .addBean("asfExtOptions", asfExtOptions);
+        if (extOptions != null) {
+            for (int i = 0; i < extOptions.length; i++) {
+                fingerprint.addBean("extOptions[" + i + "]", extOptions[i]);
+            }
+        }
+
+        fingerprint
+                .add("maxReleases", maxReleases)
+                .add("releasesSince", releasesSince)
+                .add("releaseVersionRange", releaseVersionRange)
+                .add("excludePreReleases", excludePreReleases)
+                .add("releaseChecksums", releaseChecksums)
+                .add("incrementalReleases", incrementalReleases)
+                .add("outputTimestamp", outputDate != null ? outputDate.getTime() : null)
+                .add("offline", isOffline());
+        for (ArtifactRepository repo : remoteRepositories) {
+            fingerprint.add("repository." + repo.getId(), repo.getUrl());
+        }
+        if (versioning != null) {
+            fingerprint.add("versions", versioning.getVersions()).add("lastUpdated", versioning.getLastUpdated());
+        }
+
+        // the values of the settings, system properties and environment variables used by the interpolation
+        DoapInterpolator interpolator = new DoapInterpolator(project, settings);
+        for (String expression : fingerprint.getExpressions()) {
+            fingerprint.add("interpolated." + expression, interpolator.interpolate(expression));
+        }
+
+        return fingerprint.toHex();
     }
     // CHECKSTYLE_OFF: MethodLength
-    private void doWrite(MavenProject project, File outputFile, Writer w) throws MojoExecutionException {
-        if (asfExtOptions.isIncluded()) {
+    /**
+     * Collect the content of the DOAP file from the project and the plugin options. Nothing is written: the sections
+     * are recorded in a {@link DoapDocument}, rendered afterwards.
+     *
+     * @param project the Maven project, not null
+     * @param outputFile the DOAP file, not null
+     * @param releases the releases section, collected concurrently, not null
+     * @return the content of the DOAP file
+     * @throws MojoExecutionException if the options are invalid or the releases could not be resolved
+     */
+    private DoapDocument collect(MavenProject project, File outputFile, Future<DoapDocument> releases)
+            throws MojoExecutionException {
+        if (asfIncluded) {
             getLog().info("Generating an ASF DOAP file " + outputFile.getAbsolutePath());
         } else {
             getLog().info("Generating a pure DOAP file " + outputFile.getAbsolutePath());
         }
 
-        XMLWriter writer = new PrettyPrintXMLWriter(w, project.getModel().getModelEncoding(), null);
+        DoapDocument.Builder writer = new DoapDocument.Builder(project.getModel().getModelEncoding());
 
         // ----------------------------------------------------------------------------
         // Convert POM to DOAP
         // ----------------------------------------------------------------------------
 
-        DoapUtil.writeHeader(writer);
+        DoapUtil.writeHeader(writer, outputDate);
 
         // Heading
         DoapUtil.writeStartElement(writer, "rdf", "RDF");
@@ -602,8 +1358,11 @@ public class DoapMojo extends AbstractMojo {
                 "xmlns" + (StringUtils.isEmpty(doapOptions.getXmlnsPrefix()) ? "" : ":" + doapOptions.getXmlnsPrefix()),
                 doapOptions.getXmlnsNamespaceURI());
         writer.addAttribute("xmlns:rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#");
-        writer.addAttribute("xmlns:foaf", "http://xmlns.com/foaf/0.1/");
-        if (asfExtOptions.isIncluded()) {
+        writer.addAttribute("xmlns:foaf", DoapUtil.FOAF_NAMESPACE_URI);
+        if (releaseChecksums) {
+            writer.addAttribute("xmlns:spdx", DoapUtil.SPDX_NAMESPACE_URI);
+        }
+        if (asfIncluded) {
             if (StringUtils.isEmpty(asfExtOptions.getXmlnsPrefix())) {
                 messages.addMessage(new String[] {"doapOptions", "xmlnsPrefix"}, null, UserMessages.REQUIRED);
                 throw new MojoExecutionException(messages.getErrorMessages().get(0));
@@ -745,8 +1504,8 @@ public class DoapMojo extends AbstractMojo {
         // wiki
         writeWiki(writer, project);
 
-        // Releases
-        writeReleases(writer, project);
+        // Releases, joined once the other sections are collected
+        DoapDocument.Slot releasesSlot = writer.reserve();
 
         // Developers
         List<Developer> developers = project.getDevelopers();
@@ -771,6 +1530,49 @@ public class DoapMojo extends AbstractMojo {
         writeOrganizations(writer);
 
         writer.endElement(); // rdf:RDF
+
+        long start = System.currentTimeMillis();
+        releasesSlot.fill(join(releases));
+        getLog().debug("Waited " + (System.currentTimeMillis() - start) + " ms for the release discovery of "
+                + project.getId());
+
+        return writer.build();
+    }
+
+    /**
+     * Collect the releases section of the DOAP file, on its own thread: the release discovery is bound by the network
+     * while the other sections are not.
+     *
+     * @param project the Maven project, not null
+     * @param releaseMessages the messages of the releases section, not shared with the other sections
+     * @return the releases section
+     * @throws MojoExecutionException if the releases could not be resolved
+     */
+    private DoapDocument collectReleases(MavenProject project, UserMessages releaseMessages)
+            throws MojoExecutionException {
+        DoapDocument.Builder writer = new DoapDocument.Builder(null);
+        writeReleases(writer, project, releaseMessages);
+        return writer.build();
+    }
+
+    /**
+     * @param releases not null
+     * @return the releases section
+     * @throws MojoExecutionException if the releases could not be resolved
+     */
+    private static DoapDocument join(Future<DoapDocument> releases) throws MojoExecutionException {
+        try {
+            return releases.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while discovering the releases", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            throw new MojoExecutionException("Error when discovering the releases: " + cause.getMessage(), cause);
+        }
     }
     // CHECKSTYLE_OFF: MethodLength
     /**
@@ -781,7 +1583,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#name">http://usefulinc.com/ns/doap#name</a>
      */
     private void writeName(XMLWriter writer, MavenProject project) {
-        String name = DoapUtil.interpolate(doapOptions.getName(), project, settings);
+        String name = interpolate(doapOptions.getName(), project);
         if (name == null || name.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "name"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -806,7 +1608,7 @@ public class DoapMojo extends AbstractMojo {
      */
     private void writeDescription(XMLWriter writer, MavenProject project) {
         boolean addComment = false;
-        String description = DoapUtil.interpolate(doapOptions.getDescription(), project, settings);
+        String description = interpolate(doapOptions.getDescription(), project);
         if (description == null || description.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "description"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -817,7 +1619,7 @@ public class DoapMojo extends AbstractMojo {
         }
 
         String comment = "Short plain text description of a project.";
-        String shortdesc = DoapUtil.interpolate(doapOptions.getShortdesc(), project, settings);
+        String shortdesc = interpolate(doapOptions.getShortdesc(), project);
         if (shortdesc == null || shortdesc.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "shortdesc"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -850,7 +1652,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#created">http://usefulinc.com/ns/doap#created</a>
      */
     private void writeCreated(XMLWriter writer, MavenProject project) {
-        String created = DoapUtil.interpolate(doapOptions.getCreated(), project, settings);
+        String created = interpolate(doapOptions.getCreated(), project);
         if (created == null || created.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "created"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -859,7 +1661,7 @@ public class DoapMojo extends AbstractMojo {
 
         try {
             DOAP_DATE_FORMAT.parse(created);
-        } catch (ParseException e) {
+        } catch (DateTimeParseException e) {
             messages.addMessage(new String[] {"doapOptions", "created"}, null, UserMessages.INVALID_DATE);
             return;
         }
@@ -877,7 +1679,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#old-homepage">http://usefulinc.com/ns/doap#old-homepage</a>
      */
     private void writeHomepage(XMLWriter writer, MavenProject project) {
-        String homepage = DoapUtil.interpolate(doapOptions.getHomepage(), project, settings);
+        String homepage = interpolate(doapOptions.getHomepage(), project);
         if (homepage == null || homepage.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "homepage"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -893,7 +1695,7 @@ public class DoapMojo extends AbstractMojo {
         }
 
         if (StringUtils.isNotEmpty(doapOptions.getOldHomepage())) {
-            String oldHomepage = DoapUtil.interpolate(doapOptions.getOldHomepage(), project, settings);
+            String oldHomepage = interpolate(doapOptions.getOldHomepage(), project);
             if (oldHomepage == null || oldHomepage.isEmpty()) {
                 return;
             }
@@ -936,7 +1738,7 @@ public class DoapMojo extends AbstractMojo {
 
             language = language.trim();
 
-            if (asfExtOptions.isIncluded()) {
+            if (asfIncluded) {
                 String asfLanguage = ASFExtOptionsUtil.getProgrammingLanguageSupportedByASF(language);
                 if (asfLanguage == null) {
                     messages.getErrorMessages()
@@ -961,7 +1763,7 @@ public class DoapMojo extends AbstractMojo {
             for (String language : languages) {
                 language = language.trim();
 
-                if (asfExtOptions.isIncluded()) {
+                if (asfIncluded) {
                     String asfLanguage = ASFExtOptionsUtil.getProgrammingLanguageSupportedByASF(language);
                     if (asfLanguage == null) {
                         messages.getErrorMessages()
@@ -1015,7 +1817,7 @@ public class DoapMojo extends AbstractMojo {
 
             category = category.trim();
 
-            if (asfExtOptions.isIncluded()) {
+            if (asfIncluded) {
                 String asfCategory = ASFExtOptionsUtil.getCategorySupportedByASF(category);
                 if (asfCategory == null) {
                     messages.getErrorMessages()
@@ -1043,7 +1845,7 @@ public class DoapMojo extends AbstractMojo {
             for (String category : categories) {
                 category = category.trim();
 
-                if (asfExtOptions.isIncluded()) {
+                if (asfIncluded) {
                     String asfCategory = ASFExtOptionsUtil.getCategorySupportedByASF(category);
                     if (asfCategory == null) {
                         messages.getErrorMessages()
@@ -1082,7 +1884,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#download-mirror">http://usefulinc.com/ns/doap#download-mirror</a>
      */
     private void writeDownloadPage(XMLWriter writer, MavenProject project) {
-        String downloadPage = DoapUtil.interpolate(doapOptions.getDownloadPage(), project, settings);
+        String downloadPage = interpolate(doapOptions.getDownloadPage(), project);
         if (downloadPage == null || downloadPage.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "downloadPage"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -1129,7 +1931,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#os">http://usefulinc.com/ns/doap#os</a>
      */
     private void writeOS(XMLWriter writer, MavenProject project) {
-        String osList = DoapUtil.interpolate(doapOptions.getOs(), project, settings);
+        String osList = interpolate(doapOptions.getOs(), project);
         if (osList == null || osList.isEmpty()) {
             return;
         }
@@ -1149,7 +1951,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#screenshots">http://usefulinc.com/ns/doap#screenshots</a>
      */
     private void writeScreenshots(XMLWriter writer, MavenProject project) {
-        String screenshots = DoapUtil.interpolate(doapOptions.getScreenshots(), project, settings);
+        String screenshots = interpolate(doapOptions.getScreenshots(), project);
         if (screenshots == null || screenshots.isEmpty()) {
             return;
         }
@@ -1174,7 +1976,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#wiki">http://usefulinc.com/ns/doap#wiki</a>
      */
     private void writeWiki(XMLWriter writer, MavenProject project) {
-        String wiki = DoapUtil.interpolate(doapOptions.getWiki(), project, settings);
+        String wiki = interpolate(doapOptions.getWiki(), project);
         if (wiki == null || wiki.isEmpty()) {
             return;
         }
@@ -1199,7 +2001,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#license">http://usefulinc.com/ns/doap#license</a>
      */
     private void writeLicenses(XMLWriter writer, MavenProject project) {
-        String license = DoapUtil.interpolate(doapOptions.getLicense(), project, settings);
+        String license = interpolate(doapOptions.getLicense(), project);
         if (license == null || license.isEmpty()) {
             boolean added = false;
             @SuppressWarnings("unchecked")
@@ -1250,7 +2052,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#bug-database">http://usefulinc.com/ns/doap#bug-database</a>
      */
     private void writeBugDatabase(XMLWriter writer, MavenProject project) {
-        String bugDatabase = DoapUtil.interpolate(doapOptions.getBugDatabase(), project, settings);
+        String bugDatabase = interpolate(doapOptions.getBugDatabase(), project);
         if (bugDatabase == null || bugDatabase.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "bugDatabase"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -1276,7 +2078,7 @@ public class DoapMojo extends AbstractMojo {
      * @see DoapOptions#getMailingList()
      */
     private void writeMailingList(XMLWriter writer, MavenProject project) {
-        String ml = DoapUtil.interpolate(doapOptions.getMailingList(), project, settings);
+        String ml = interpolate(doapOptions.getMailingList(), project);
         if (ml == null || ml.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "mailingList"}, null, UserMessages.REQUIRED_BY_ASF_OR_RECOMMENDED);
@@ -1298,46 +2100,131 @@ public class DoapMojo extends AbstractMojo {
      *
      * @param writer  not null
      * @param project the Maven project, not null
+     * @param releaseMessages the messages of the releases section, not null
      * @throws MojoExecutionException if any
      * @see <a href="http://usefulinc.com/ns/doap#release">http://usefulinc.com/ns/doap#release</a>
      * @see <a href="http://usefulinc.com/ns/doap#Version">http://usefulinc.com/ns/doap#Version</a>
      */
-    private void writeReleases(XMLWriter writer, MavenProject project) throws MojoExecutionException {
-        Artifact artifact = artifactFactory.createArtifact(
-                project.getGroupId(), project.getArtifactId(), project.getVersion(), null, project.getPackaging());
-        RepositoryMetadata metadata = new ArtifactRepositoryMetadata(artifact);
+    private void writeReleases(XMLWriter writer, MavenProject project, UserMessages releaseMessages)
+            throws MojoExecutionException {
+        ReleaseDiscoveryGuard guard = releaseGuard;
 
-        for (ArtifactRepository repo : remoteRepositories) {
-            if (repo.isBlacklisted()) {
-                continue;
-            }
-            if (repo.getSnapshots().isEnabled()) {
-                continue;
-            }
-            if (repo.getReleases().isEnabled()) {
-                try {
-                    repositoryMetadataManager.resolveAlways(metadata, localRepository, repo);
-                    break;
-                } catch (RepositoryMetadataResolutionException e) {
-                    throw new MojoExecutionException(
-                            metadata.extendedToString() + " could not be retrieved from repositories due to an error: "
-                                    + e.getMessage(),
-                            e);
-                }
-            }
+        LocalReleaseSource localReleaseSource = createLocalReleaseSource();
+        if (localReleaseSource != null) {
+            getLog().info("Offline mode, listing the releases from the local repository.");
         }
 
-        if (metadata.getMetadata().getVersioning() == null) {
-            messages.getWarnMessages()
-                    .add("No versioning was found for " + artifact.getGroupId() + ":" + artifact.getArtifactId()
+        Versioning versioning = releaseVersioningResolved
+                ? releaseVersioning
+                : resolveVersioning(project, localReleaseSource, guard);
+        releasesComplete = guard.isComplete();
+
+        if (versioning == null) {
+            releaseMessages.getWarnMessages()
+                    .add("No versioning was found for " + project.getGroupId() + ":" + project.getArtifactId()
                             + ". Ignored DOAP <release/> tag.");
             return;
         }
 
-        List<String> versions = metadata.getMetadata().getVersioning().getVersions();
+        // Filter before probing, the cost of the discovery depends on the listed releases only
+        List<String> versions = new ArrayList<>(createReleaseFilter().filter(versioning.getVersions()));
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        // The last updated date of the metadata is the date of the most recent release only
+        String latest = versioning.getVersions().get(versioning.getVersions().size() - 1);
+        boolean latestListed = versions.get(versions.size() - 1).equals(latest);
 
         // Recent releases in first
         Collections.reverse(versions);
+
+        // Only discover the releases not already listed by the previous DOAP file
+        boolean reusePrevious = previousReleases != null && (incrementalReleases || metadataUnchanged);
+        List<String> newVersions = versions;
+        if (reusePrevious) {
+            if (metadataUnchanged) {
+                getLog().info("The repository metadata of " + project.getGroupId() + ":" + project.getArtifactId()
+                        + " is unchanged.");
+            }
+            newVersions = new ArrayList<>();
+            for (String version : versions) {
+                PreviousReleases.Release previous = previousReleases.get(version);
+                if (previous == null
+                        || (!metadataUnchanged && previous.getFileReleases().isEmpty())
+                        || (releaseChecksums && previous.getChecksum() == null)) {
+                    newVersions.add(version);
+                }
+            }
+            getLog().info("Reusing " + (versions.size() - newVersions.size())
+                    + " releases of the previous DOAP file, discovering " + newVersions.size() + " releases.");
+        }
+
+        Map<String, List<String>> fileReleases;
+        Map<String, String> checksums = new HashMap<>();
+        if (newVersions.isEmpty()) {
+            fileReleases = new HashMap<>();
+        } else if (localReleaseSource != null) {
+            fileReleases = localReleaseSource.probe(
+                    project.getGroupId(),
+                    project.getArtifactId(),
+                    project.getPackaging(),
+                    newVersions,
+                    remoteRepositories);
+        } else {
+            ReleaseProber prober = new ReleaseProber(
+                    artifactFactory,
+                    connectorProvider,
+                    repositorySystemSession,
+                    sessionCache,
+                    getLog(),
+                    releaseProbeParallelism,
+                    guard);
+            prober.setFetchChecksums(releaseChecksums);
+            if (useReleaseCache) {
+                prober.setExistenceCache(sessionCache.getExistenceCache(
+                        getReleaseCacheDirectory(),
+                        project.getGroupId(),
+                        project.getArtifactId(),
+                        releaseCacheNegativeTtl < 0 ? -1 : releaseCacheNegativeTtl * 1000L,
+                        getLog()));
+            }
+            fileReleases = prober.probe(
+                    project.getGroupId(),
+                    project.getArtifactId(),
+                    project.getPackaging(),
+                    newVersions,
+                    remoteRepositories);
+            checksums.putAll(prober.getChecksums());
+        }
+
+        for (String version : versions) {
+            if (!fileReleases.containsKey(version)) {
+                PreviousReleases.Release previous = previousReleases.get(version);
+                fileReleases.put(
+                        version, PreviousReleases.sortByRepository(previous.getFileReleases(), remoteRepositories));
+                if (previous.getChecksum() != null) {
+                    checksums.put(version, previous.getChecksum());
+                }
+            }
+        }
+
+        if (guard.isTimedOut()) {
+            releaseMessages.getWarnMessages()
+                    .add("The release discovery of " + project.getGroupId() + ":" + project.getArtifactId()
+                            + " exceeded the releaseDiscoveryTimeout of " + releaseDiscoveryTimeout
+                            + " seconds. Only the releases confirmed so far are listed.");
+
+            // keep the confirmed releases only
+            for (Iterator<String> it = versions.iterator(); it.hasNext(); ) {
+                if (fileReleases.get(it.next()).isEmpty()) {
+                    it.remove();
+                }
+            }
+            latestListed = latestListed && !versions.isEmpty() && versions.get(0).equals(latest);
+        }
+        releasesComplete = guard.isComplete();
+
         boolean addComment = false;
         int i = 0;
         for (String version : versions) {
@@ -1356,46 +2243,43 @@ public class DoapMojo extends AbstractMojo {
             DoapUtil.writeElement(writer, doapOptions.getXmlnsPrefix(), "revision", version);
 
             // list all file release from all remote repos
-            for (ArtifactRepository repo : remoteRepositories) {
-                Artifact artifactRelease = artifactFactory.createArtifact(
-                        project.getGroupId(), project.getArtifactId(), version, null, project.getPackaging());
-
-                if (artifactRelease == null) {
-                    continue;
-                }
-
-                String fileRelease = repo.getUrl() + "/" + repo.pathOf(artifactRelease);
-
-                if (!isArtifactInRepository(artifactRelease, repo)) {
-                    getLog().debug(artifactRelease + " is not in the repository " + repo);
-                    continue;
-                }
-
+            for (String fileRelease : fileReleases.get(version)) {
                 DoapUtil.writeElement(writer, doapOptions.getXmlnsPrefix(), "file-release", fileRelease);
 
-                Date releaseDate = null;
+                LocalDateTime releaseDate;
 
                 // If the last updated date is not available, skip it
-                if (metadata.getMetadata().getVersioning().getLastUpdated() == null) {
+                if (versioning.getLastUpdated() == null) {
                     continue;
                 }
 
                 try {
-                    releaseDate = REPOSITORY_DATE_FORMAT.parse(
-                            metadata.getMetadata().getVersioning().getLastUpdated());
-                } catch (ParseException e) {
+                    releaseDate = LocalDateTime.parse(versioning.getLastUpdated(), REPOSITORY_DATE_FORMAT);
+                } catch (DateTimeParseException e) {
                     getLog().error("Unable to parse date '"
-                            + metadata.getMetadata().getVersioning().getLastUpdated() + "'");
+                            + versioning.getLastUpdated() + "'");
                     continue;
                 }
 
                 // See MDOAP-11
-                if (i == 0) {
+                if (i == 0 && latestListed) {
                     DoapUtil.writeElement(
                             writer, doapOptions.getXmlnsPrefix(), "created", DOAP_DATE_FORMAT.format(releaseDate));
                 }
             }
 
+            // Keep the created date of a reused release
+            if (reusePrevious && !(i == 0 && latestListed)) {
+                PreviousReleases.Release previous = previousReleases.get(version);
+                if (previous != null && previous.getCreated() != null) {
+                    DoapUtil.writeElement(writer, doapOptions.getXmlnsPrefix(), "created", previous.getCreated());
+                }
+            }
+
+            if (releaseChecksums && checksums.containsKey(version)) {
+                DoapUtil.writeChecksum(writer, checksums.get(version));
+            }
+
             writer.endElement(); // Version
             writer.endElement(); // release
 
@@ -1403,43 +2287,86 @@ public class DoapMojo extends AbstractMojo {
         }
     }
 
-    private boolean isArtifactInRepository(Artifact artifact, ArtifactRepository repository) {
-        // Convert Legacy Artifact to Aether Artifact
-        String artifactCoordinates = String.format(
-                "%s:%s:%s:%s",
-                artifact.getGroupId(), artifact.getArtifactId(), artifact.getType(), artifact.getVersion());
-
-        org.eclipse.aether.artifact.Artifact aetherArtifact =
-                new org.eclipse.aether.artifact.DefaultArtifact(artifactCoordinates);
-
-        // Convert Legacy ArtifactRepository to Aether RemoteRepository
-        RemoteRepository remoteRepository = new RemoteRepository.Builder(
-                        repository.getId(), repository.getLayout().getId(), repository.getUrl())
-                .build();
+    /**
+     * @return the source of the releases when offline, null when online
+     */
+    private LocalReleaseSource createLocalReleaseSource() {
+        // Offline, the releases are only listed from the local repository
+        return isOffline() ? new LocalReleaseSource(artifactFactory, localRepository, getLog()) : null;
+    }
 
-        // set up authentication
-        remoteRepository = repositorySystem
-                .newResolutionRepositories(repositorySystemSession, Collections.singletonList(remoteRepository))
-                .get(0);
+    /**
+     * Resolve the versions of the project from the repository metadata.
+     *
+     * @param project not null
+     * @param localReleaseSource the source of the releases when offline, null when online
+     * @param guard not null
+     * @return the merged versioning, or <code>null</code> if none was found
+     * @throws MojoExecutionException if all the repositories failed
+     */
+    private Versioning resolveVersioning(
+            MavenProject project, LocalReleaseSource localReleaseSource, ReleaseDiscoveryGuard guard)
+            throws MojoExecutionException {
+        if (localReleaseSource != null) {
+            return localReleaseSource.resolve(project.getGroupId(), project.getArtifactId(), remoteRepositories);
+        }
+
+        return sessionCache.getVersioning(
+                project.getGroupId(), project.getArtifactId(), remoteRepositories, guard, () -> {
+                    ReleaseMetadataResolver resolver = new ReleaseMetadataResolver(
+                            repositorySystem, repositorySystemSession, sessionCache, getLog(), guard);
+                    if (revalidateMetadata) {
+                        resolver.setRevalidator(new MetadataRevalidator(
+                                new File(getReleaseCacheDirectory(), "metadata"), repositorySystemSession, getLog()));
+                    }
+                    Versioning versioning =
+                            resolver.resolve(project.getGroupId(), project.getArtifactId(), remoteRepositories);
+                    metadataUnchanged = resolver.isUnchanged();
+                    return versioning;
+                });
+    }
 
-        return artifactExistsRemotely(aetherArtifact, remoteRepository);
+    /**
+     * @return the directory of the caches kept between builds
+     */
+    private File getReleaseCacheDirectory() {
+        return releaseCacheDirectory != null
+                ? releaseCacheDirectory
+                : new File(localRepository.getBasedir(), ".cache/maven-doap-plugin");
     }
 
     /**
-     * Check if an artifact exists in a remote repo without downloading it.
+     * Interpolate a string with the project and the settings, reusing the interpolator of the project.
+     *
+     * @param value could be null
+     * @param project not null
+     * @return the value trimmed and interpolated or null if the interpolation doesn't work
+     * @see DoapUtil#interpolate(String, MavenProject, Settings)
      */
-    private boolean artifactExistsRemotely(org.eclipse.aether.artifact.Artifact artifact, RemoteRepository repository) {
-        try (RepositoryConnector connector =
-                connectorProvider.newRepositoryConnector(this.repositorySystemSession, repository)) {
-            ArtifactDownload download = new ArtifactDownload(artifact, null, null, null);
-            download.setExistenceCheck(true);
+    private String interpolate(String value, MavenProject project) {
+        return fileContext.getInterpolator(project, settings).interpolate(value);
+    }
 
-            connector.get(Collections.singleton(download), null);
+    /**
+     * @return <code>true</code> if Maven or the repository system session is offline
+     */
+    private boolean isOffline() {
+        return settings.isOffline() || (repositorySystemSession != null && repositorySystemSession.isOffline());
+    }
 
-            return download.getException() == null;
+    /**
+     * @return the filter of the releases listed in the DOAP file
+     * @throws MojoExecutionException if the release window parameters are not valid
+     */
+    private ReleaseFilter createReleaseFilter() throws MojoExecutionException {
+        if (releasesSince != null && RELEASE_DATE_PATTERN.matcher(releasesSince.trim()).matches()) {
+            throw new MojoExecutionException("releasesSince should be a version, not a date: " + releasesSince);
+        }
 
-        } catch (NoRepositoryConnectorException e) {
-            return false;
+        try {
+            return new ReleaseFilter(maxReleases, releasesSince, releaseVersionRange, excludePreReleases);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
     }
 
@@ -1452,7 +2379,7 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://usefulinc.com/ns/doap#SVNRepository">http://usefulinc.com/ns/doap#SVNRepository</a>
      */
     private void writeSourceRepositories(XMLWriter writer, MavenProject project) {
-        String anonymousConnection = DoapUtil.interpolate(doapOptions.getScmAnonymous(), project, settings);
+        String anonymousConnection = interpolate(doapOptions.getScmAnonymous(), project);
         if (anonymousConnection == null || anonymousConnection.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "scmAnonymousConnection"},
@@ -1474,7 +2401,7 @@ public class DoapMojo extends AbstractMojo {
             }
         }
 
-        String devConnection = DoapUtil.interpolate(doapOptions.getScmDeveloper(), project, settings);
+        String devConnection = interpolate(doapOptions.getScmDeveloper(), project);
         if (devConnection == null || devConnection.isEmpty()) {
             messages.addMessage(
                     new String[] {"doapOptions", "scmDeveloperConnection"},
@@ -1567,13 +2494,17 @@ public class DoapMojo extends AbstractMojo {
             DoapUtil.writeComment(writer, "Contributed persons.");
         }
 
-        List<Contributor> maintainers = DoapUtil.getContributorsWithMaintainerRole(i18n, contributors);
-        List<Contributor> developers = DoapUtil.getContributorsWithDeveloperRole(i18n, contributors);
-        List<Contributor> documenters = DoapUtil.getContributorsWithDocumenterRole(i18n, contributors);
-        List<Contributor> translators = DoapUtil.getContributorsWithTranslatorRole(i18n, contributors);
-        List<Contributor> testers = DoapUtil.getContributorsWithTesterRole(i18n, contributors);
-        List<Contributor> helpers = DoapUtil.getContributorsWithHelperRole(i18n, contributors);
-        List<Contributor> unknowns = DoapUtil.getContributorsWithUnknownRole(i18n, contributors);
+        if (roleClassifier == null) {
+            roleClassifier = new ContributorRoleClassifier(i18n, Locale.ENGLISH);
+        }
+        Map<String, List<Contributor>> roles = roleClassifier.classify(contributors);
+        List<Contributor> maintainers = roles.get("maintainers");
+        List<Contributor> developers = roles.get("developers");
+        List<Contributor> documenters = roles.get("documenters");
+        List<Contributor> translators = roles.get("translators");
+        List<Contributor> testers = roles.get("testers");
+        List<Contributor> helpers = roles.get("helpers");
+        List<Contributor> unknowns = roles.get("unknowns");
 
         // By default, all developers are maintainers and contributors are helpers
         if (isDeveloper) {
@@ -1679,8 +2610,8 @@ public class DoapMojo extends AbstractMojo {
 
         if (!(organization == null || organization.isEmpty())
                 || !(organizationUrl == null || organizationUrl.isEmpty())) {
-            DoapUtil.Organization doapOrganization = DoapUtil.addOrganization(organization, organizationUrl);
-            nodeId = DoapUtil.getNodeId();
+            DoapUtil.Organization doapOrganization = fileContext.addOrganization(organization, organizationUrl);
+            nodeId = fileContext.newNodeId(doapType, name, email, organization, organizationUrl, homepage);
             doapOrganization.addMember(nodeId);
         }
 
@@ -1707,7 +2638,7 @@ public class DoapMojo extends AbstractMojo {
             try {
                 new URL(organizationUrl);
 
-                DoapUtil.addOrganization(organization, organizationUrl);
+                fileContext.addOrganization(organization, organizationUrl);
             } catch (MalformedURLException e) {
                 messages.addMessage(
                         new String[] {"project", "developers|contributors", "developer|contributor", "organizationUrl"},
@@ -1738,18 +2669,11 @@ public class DoapMojo extends AbstractMojo {
      * @return a valid SCM repository or null
      */
     private ScmRepository getScmRepository(String scmUrl) {
-        ScmRepository repo = null;
-        if (!(scmUrl == null || scmUrl.isEmpty())) {
-            try {
-                repo = scmManager.makeScmRepository(scmUrl);
-            } catch (NoSuchScmProviderException | ScmRepositoryException e) {
-                if (getLog().isDebugEnabled()) {
-                    getLog().debug(e.getMessage(), e);
-                }
-            }
+        if (scmUrl == null || scmUrl.isEmpty()) {
+            return null;
         }
 
-        return repo;
+        return sessionCache.getScmRepository(scmManager, scmUrl, getLog());
     }
 
     /**
@@ -1762,14 +2686,14 @@ public class DoapMojo extends AbstractMojo {
      * @see <a href="http://projects.apache.org/docs/pmc.html">http://projects.apache.org/docs/pmc.html</a>
      */
     private void writeASFext(XMLWriter writer, MavenProject project) {
-        if (!asfExtOptions.isIncluded()) {
+        if (!asfIncluded) {
             return;
         }
 
         DoapUtil.writeComment(writer, "ASF extension.");
 
         // asfext:pmc
-        String pmc = DoapUtil.interpolate(asfExtOptions.getPmc(), project, settings);
+        String pmc = interpolate(asfExtOptions.getPmc(), project);
         if (pmc != null && !pmc.isEmpty()) {
             DoapUtil.writeRdfResourceElement(writer, asfExtOptions.getXmlnsPrefix(), "pmc", pmc);
         } else {
@@ -1777,7 +2701,7 @@ public class DoapMojo extends AbstractMojo {
         }
 
         // asfext:name
-        String name = DoapUtil.interpolate(asfExtOptions.getName(), project, settings);
+        String name = interpolate(asfExtOptions.getName(), project);
         if (name != null && !name.isEmpty()) {
             if (!name.toLowerCase(Locale.ENGLISH).trim().startsWith("apache")) {
                 name = "Apache " + name;
@@ -1787,7 +2711,7 @@ public class DoapMojo extends AbstractMojo {
             messages.addMessage(new String[] {"asfExtOptions", "name"}, null, UserMessages.REQUIRED_BY_ASF);
         }
 
-        String homepage = DoapUtil.interpolate(doapOptions.getHomepage(), project, settings);
+        String homepage = interpolate(doapOptions.getHomepage(), project);
         if (homepage != null && !homepage.isEmpty()) {
             try {
                 new URL(homepage);
@@ -1926,10 +2850,15 @@ public class DoapMojo extends AbstractMojo {
      * @see #writeContributor(XMLWriter, Object, String)
      */
     private void writeOrganizations(XMLWriter writer) {
-        Set<Entry<String, DoapUtil.Organization>> organizations = DoapUtil.getOrganizations();
+        List<DoapUtil.Organization> organizations = fileContext.getOrganizations();
+        if (outputDate != null) {
+            organizations.sort(Comparator.comparing(
+                            DoapUtil.Organization::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(
+                            DoapUtil.Organization::getUrl, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+        }
 
-        for (Entry<String, DoapUtil.Organization> organizationEntry : organizations) {
-            DoapUtil.Organization organization = organizationEntry.getValue();
+        for (DoapUtil.Organization organization : organizations) {
 
             DoapUtil.writeStartElement(writer, "foaf", "Organization");
             if (!StringUtils.isEmpty(organization.getName())) {
@@ -1961,7 +2890,7 @@ public class DoapMojo extends AbstractMojo {
      * @since 1.1
      */
     private void writeAudience(XMLWriter writer) {
-        String audience = DoapUtil.interpolate(doapOptions.getAudience(), project, settings);
+        String audience = interpolate(doapOptions.getAudience(), project);
         if (audience == null || audience.isEmpty()) {
             return;
         }
@@ -1978,7 +2907,7 @@ public class DoapMojo extends AbstractMojo {
      * @since 1.1
      */
     private void writeBlog(XMLWriter writer) {
-        String blog = DoapUtil.interpolate(doapOptions.getBlog(), project, settings);
+        String blog = interpolate(doapOptions.getBlog(), project);
         if (StringUtils.isEmpty(doapOptions.getBlog())) {
             return;
         }
@@ -2023,7 +2952,7 @@ public class DoapMojo extends AbstractMojo {
      * @since 1.1
      */
     private void writeVendor(XMLWriter writer, MavenProject project) {
-        String vendor = DoapUtil.interpolate(doapOptions.getVendor(), project, settings);
+        String vendor = interpolate(doapOptions.getVendor(), project);
         if (vendor == null || vendor.isEmpty()) {
             return;
         }
@@ -2070,7 +2999,7 @@ public class DoapMojo extends AbstractMojo {
      * @since 1.1
      */
     private void writeServiceEndpoint(XMLWriter writer) {
-        String serviceEndpoint = DoapUtil.interpolate(doapOptions.getServiceEndpoint(), project, settings);
+        String serviceEndpoint = interpolate(doapOptions.getServiceEndpoint(), project);
         if (serviceEndpoint == null || serviceEndpoint.isEmpty()) {
             return;
         }
@@ -2123,8 +3052,15 @@ public class DoapMojo extends AbstractMojo {
             return;
         }
 
+        Collection<Map.Entry<Object, String>> entries = map.entrySet();
+        if (outputDate != null) {
+            List<Map.Entry<Object, String>> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparing(e -> String.valueOf(e.getKey())));
+            entries = sorted;
+        }
+
         boolean addComment = false;
-        for (Map.Entry<Object, String> entry : map.entrySet()) {
+        for (Map.Entry<Object, String> entry : entries) {
             String key = (String) entry.getKey();
             String value = entry.getValue();
 
@@ -2132,7 +3068,7 @@ public class DoapMojo extends AbstractMojo {
                 continue;
             }
 
-            String interpolatedValue = DoapUtil.interpolate(value, project, settings);
+            String interpolatedValue = interpolate(value, project);
             if (interpolatedValue == null) {
                 continue;
             }
@@ -2307,14 +3243,14 @@ public class DoapMojo extends AbstractMojo {
                     break;
                 case REQUIRED_BY_ASF_OR_RECOMMENDED:
                     if (isPom) {
-                        if (asfExtOptions.isIncluded()) {
+                        if (asfIncluded) {
                             errorMessages.add("A POM " + toConfiguration(tags, null) + " value is required by ASF.");
                         } else {
                             warnMessages.add("No POM " + toConfiguration(tags, null)
                                     + " value is defined, it is highly recommended to have one.");
                         }
                     } else {
-                        if (asfExtOptions.isIncluded()) {
+                        if (asfIncluded) {
                             errorMessages.add("A " + toConfiguration(tags, null) + " parameter is required by ASF.");
                         } else {
                             warnMessages.add("No " + toConfiguration(tags, null)
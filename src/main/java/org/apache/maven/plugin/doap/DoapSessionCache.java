@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.inject.AbstractModule;
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.SessionScoped;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * The results shared by all the DOAP generations of a Maven session, so that the modules of a reactor resolve them
+ * once: the SCM repositories, the remote repositories with their authentication, proxy and mirror, the merged
+ * repository metadata and the release existence caches. The hits and misses of each cache are counted, to be logged
+ * when the last DOAP generation of the build finishes.
+ * <p>
+ * The results are only kept in memory, for the duration of the session: the cache is bound in the session scope by
+ * {@link Module}. Thread-safe.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class DoapSessionCache {
+    static final String SCM_REPOSITORIES = "SCM repositories";
+
+    static final String REMOTE_REPOSITORIES = "remote repositories";
+
+    static final String METADATA = "repository metadata";
+
+    static final String RELEASE_EXISTENCE = "release existence checks";
+
+    /**
+     * Binds the cache in the session scope of the plugin components. Without this binding, e.g. outside of a Maven
+     * session, each component receives its own cache.
+     */
+    @Named
+    static class Module extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(DoapSessionCache.class).in(SessionScoped.class);
+        }
+    }
+
+    /** The hits and misses of a cache. */
+    static class Statistics {
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        long getHits() {
+            return hits.get();
+        }
+
+        long getMisses() {
+            return misses.get();
+        }
+
+        void record(boolean hit) {
+            (hit ? hits : misses).incrementAndGet();
+        }
+    }
+
+    /** The merged versioning of an artifact, null if no repository has one. */
+    private static class MetadataEntry {
+        private final Versioning versioning;
+
+        MetadataEntry(Versioning versioning) {
+            this.versioning = versioning;
+        }
+    }
+
+    private final RepositorySystem repositorySystem;
+
+    private final Map<String, Statistics> statistics;
+
+    private final ScmRepositoryCache scmRepositories = new ScmRepositoryCache();
+
+    private final ConcurrentMap<String, RemoteRepository> remoteRepositories = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, MetadataEntry> metadata = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<File, ReleaseExistenceCache> existenceCaches = new ConcurrentHashMap<>();
+
+    /** The DOAP generations of the session not finished yet, null before the first one finishes. */
+    private Set<String> pendingExecutions;
+
+    /**
+     * @param repositorySystem not null
+     */
+    @Inject
+    DoapSessionCache(RepositorySystem repositorySystem) {
+        this.repositorySystem = repositorySystem;
+        Map<String, Statistics> map = new LinkedHashMap<>();
+        for (String name : new String[] {SCM_REPOSITORIES, REMOTE_REPOSITORIES, METADATA, RELEASE_EXISTENCE}) {
+            map.put(name, new Statistics());
+        }
+        statistics = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @param scmManager not null
+     * @param scmUrl an SCM URL, not null
+     * @param log not null
+     * @return a valid SCM repository or null
+     * @see ScmRepositoryCache#getScmRepository(ScmManager, String, Log)
+     */
+    ScmRepository getScmRepository(ScmManager scmManager, String scmUrl, Log log) {
+        statistics.get(SCM_REPOSITORIES).record(scmRepositories.contains(scmUrl));
+        return scmRepositories.getScmRepository(scmManager, scmUrl, log);
+    }
+
+    /**
+     * @param repositorySystemSession not null
+     * @param repository not null
+     * @return the remote repository with its authentication, proxy and mirror set up
+     */
+    RemoteRepository getRemoteRepository(
+            RepositorySystemSession repositorySystemSession, ArtifactRepository repository) {
+        String key = repository.getId() + '|' + repository.getLayout().getId() + '|' + repository.getUrl();
+        RemoteRepository remoteRepository = remoteRepositories.get(key);
+        statistics.get(REMOTE_REPOSITORIES).record(remoteRepository != null);
+        if (remoteRepository == null) {
+            remoteRepository = repositorySystem
+                    .newResolutionRepositories(
+                            repositorySystemSession, Collections.singletonList(RepositoryUtils.toRepo(repository)))
+                    .get(0);
+            remoteRepositories.putIfAbsent(key, remoteRepository);
+        }
+        return remoteRepository;
+    }
+
+    /**
+     * @param groupId not null
+     * @param artifactId not null
+     * @param repositories not null
+     * @param guard the guard of the resolution, the versioning is only cached if it is complete, not null
+     * @param resolver resolves the versioning on a miss, not null
+     * @return the merged versioning, or <code>null</code> if none was found
+     * @throws MojoExecutionException if the resolution failed
+     */
+    Versioning getVersioning(
+            String groupId,
+            String artifactId,
+            List<ArtifactRepository> repositories,
+            ReleaseDiscoveryGuard guard,
+            VersioningResolver resolver)
+            throws MojoExecutionException {
+        StringBuilder key = new StringBuilder(groupId).append(':').append(artifactId);
+        for (ArtifactRepository repository : repositories) {
+            key.append('|').append(repository.getUrl());
+        }
+
+        MetadataEntry entry = metadata.get(key.toString());
+        statistics.get(METADATA).record(entry != null);
+        if (entry != null) {
+            return entry.versioning;
+        }
+
+        Versioning versioning = resolver.resolve();
+        if (guard.isComplete()) {
+            metadata.putIfAbsent(key.toString(), new MetadataEntry(versioning));
+        }
+        return versioning;
+    }
+
+    /**
+     * @param directory the directory of the persistent cache, not null
+     * @param groupId not null
+     * @param artifactId not null
+     * @param negativeTtl the time to live of a negative result in milliseconds, a negative value means no expiry
+     * @param log not null
+     * @return the release existence cache of the artifact, opened once by session
+     * @see ReleaseExistenceCache#open(File, String, String, long, Log)
+     */
+    ReleaseExistenceCache getExistenceCache(
+            File directory, String groupId, String artifactId, long negativeTtl, Log log) {
+        File key = new File(new File(new File(directory, groupId), artifactId), String.valueOf(negativeTtl));
+        return existenceCaches.computeIfAbsent(
+                key, k -> ReleaseExistenceCache.open(directory, groupId, artifactId, negativeTtl, log));
+    }
+
+    /**
+     * @param name the name of a cache, not null
+     * @param hit <code>true</code> if the result was found in the cache
+     */
+    void record(String name, boolean hit) {
+        statistics.get(name).record(hit);
+    }
+
+    /**
+     * @return the statistics by name of cache, in a fixed order
+     */
+    Map<String, Statistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Record the end of a DOAP generation, skipped or not, to know the last one of the session whatever the order of
+     * the projects, e.g. in a parallel build.
+     *
+     * @param expected the keys of all the generations expected in the session, including the finished one
+     * @param key the key of the finished generation, not null
+     * @return <code>true</code> if the finished generation is the last one expected
+     */
+    synchronized boolean finishExecution(Collection<String> expected, String key) {
+        if (pendingExecutions == null) {
+            pendingExecutions = new HashSet<>(expected);
+        }
+        return pendingExecutions.remove(key) && pendingExecutions.isEmpty();
+    }
+
+    /**
+     * Log the hits and misses of the caches used during the session.
+     *
+     * @param log not null
+     */
+    void logStatistics(Log log) {
+        StringBuilder message = new StringBuilder();
+        for (Map.Entry<String, Statistics> entry : statistics.entrySet()) {
+            Statistics stats = entry.getValue();
+            if (stats.getHits() + stats.getMisses() == 0) {
+                continue;
+            }
+            message.append(message.length() == 0 ? "DOAP session cache: " : ", ")
+                    .append(entry.getKey())
+                    .append(' ')
+                    .append(stats.getHits())
+                    .append(" hits/")
+                    .append(stats.getMisses())
+                    .append(" misses");
+        }
+
+        if (message.length() > 0) {
+            log.info(message.toString());
+        }
+    }
+
+    /** Resolves the versioning of an artifact on a cache miss. */
+    interface VersioningResolver {
+        /**
+         * @return the merged versioning, or <code>null</code> if none was found
+         * @throws MojoExecutionException if the resolution failed
+         */
+        Versioning resolve() throws MojoExecutionException;
+    }
+}
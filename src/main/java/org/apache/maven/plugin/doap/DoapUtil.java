@@ -18,13 +18,26 @@
  */
 package org.apache.maven.plugin.doap;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DateFormat;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -37,7 +50,8 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,12 +63,6 @@ import org.apache.maven.model.Contributor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
 import org.codehaus.plexus.i18n.I18N;
-import org.codehaus.plexus.interpolation.EnvarBasedValueSource;
-import org.codehaus.plexus.interpolation.InterpolationException;
-import org.codehaus.plexus.interpolation.ObjectBasedValueSource;
-import org.codehaus.plexus.interpolation.PrefixedObjectValueSource;
-import org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
-import org.codehaus.plexus.interpolation.RegexBasedInterpolator;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.introspection.ClassMap;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -86,15 +94,36 @@ public class DoapUtil {
     /** RDF nodeID attribute. */
     protected static final String RDF_NODE_ID = "rdf:nodeID";
 
-    /** DoaP Organizations stored by name. */
+    /** SPDX namespace URI, used for the release checksums. */
+    protected static final String SPDX_NAMESPACE_URI = "http://spdx.org/rdf/terms#";
+
+    /** FOAF namespace URI, used for the persons and organizations. */
+    protected static final String FOAF_NAMESPACE_URI = "http://xmlns.com/foaf/0.1/";
+
+    /** DoaP Organizations stored by name, only used by the deprecated methods. */
     private static Map<String, DoapUtil.Organization> organizations = new HashMap<>();
 
+    // unique RDF blank node index, only used by the deprecated getNodeId()
+    private static int nodeNumber = 1;
+
     /**
      * Write comments in the DOAP file header.
      *
      * @param writer not null
      */
     public static void writeHeader(XMLWriter writer) {
+        writeHeader(writer, null);
+    }
+
+    /**
+     * Write comments in the DOAP file header.
+     *
+     * @param writer not null
+     * @param outputDate the date of a reproducible DOAP file, written in ISO-8601 UTC, or <code>null</code> to write
+     *            the current date
+     * @since 3.0.0
+     */
+    public static void writeHeader(XMLWriter writer, Date outputDate) {
         XmlWriterUtil.writeLineBreak(writer);
 
         XmlWriterUtil.writeCommentLineBreak(writer);
@@ -106,11 +135,14 @@ public class DoapUtil {
         XmlWriterUtil.writeComment(writer, " ");
         XmlWriterUtil.writeComment(writer, "Any modifications will be overwritten.");
         XmlWriterUtil.writeComment(writer, " ");
-        DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, Locale.US);
-        XmlWriterUtil.writeComment(
-                writer,
-                "Generated by Maven Doap Plugin " + getPluginVersion() + " on "
-                        + dateFormat.format(new Date(System.currentTimeMillis())));
+        String date;
+        if (outputDate != null) {
+            date = outputDate.toInstant().toString();
+        } else {
+            DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, Locale.US);
+            date = dateFormat.format(new Date(System.currentTimeMillis()));
+        }
+        XmlWriterUtil.writeComment(writer, "Generated by Maven Doap Plugin " + getPluginVersion() + " on " + date);
         XmlWriterUtil.writeComment(writer, "See: http://maven.apache.org/plugins/maven-doap-plugin/");
         XmlWriterUtil.writeComment(writer, " ");
         XmlWriterUtil.writeCommentLineBreak(writer);
@@ -202,6 +234,28 @@ public class DoapUtil {
         }
     }
 
+    /**
+     * Write a SPDX checksum, i.e. <code>&lt;spdx:checksum&gt;&lt;spdx:Checksum&gt;...</code>.
+     *
+     * @param writer not null
+     * @param checksum formatted as <code>algorithm:value</code>, i.e. <code>sha1:da39a3ee...</code>
+     * @since 3.0.0
+     */
+    public static void writeChecksum(XMLWriter writer, String checksum) {
+        int index = checksum.indexOf(':');
+        if (index <= 0) {
+            throw new IllegalArgumentException("checksum should be formatted as algorithm:value");
+        }
+
+        writeStartElement(writer, "spdx", "checksum");
+        writeStartElement(writer, "spdx", "Checksum");
+        writeRdfResourceElement(
+                writer, "spdx", "algorithm", SPDX_NAMESPACE_URI + "checksumAlgorithm_" + checksum.substring(0, index));
+        writeElement(writer, "spdx", "checksumValue", checksum.substring(index + 1));
+        writer.endElement(); // Checksum
+        writer.endElement(); // checksum
+    }
+
     /**
      * @param writer not null
      * @param xmlnsPrefix could be null
@@ -241,6 +295,21 @@ public class DoapUtil {
         }
     }
 
+    /**
+     * Classify the developers or contributors by all their DOAP roles at once.
+     *
+     * @param i18n the internationalization component
+     * @param developersOrContributors list of <code>{@link Contributor}</code>
+     * @return a none null map with <code>maintainers</code>, <code>developers</code>, <code>documenters</code>,
+     *         <code>translators</code>, <code>testers</code>, <code>helpers</code>, <code>unknowns</code> as keys and
+     *         list of <code>{@link Contributor}</code> as value
+     * @since 3.0.0
+     */
+    public static Map<String, List<Contributor>> getContributorsByDoapRoles(
+            I18N i18n, List<Contributor> developersOrContributors) {
+        return filterContributorsByDoapRoles(i18n, developersOrContributors);
+    }
+
     /**
      * @param i18n the internationalization component
      * @param developersOrContributors list of <code>{@link Contributor}</code>
@@ -360,8 +429,10 @@ public class DoapUtil {
      * @param name from the pom file (e.g. Yoyodyne)
      * @param url from the pom file (e.g. http://yoyodyne.example.org/about)
      * @return the existing organization if a duplicate, or a new one
+     * @deprecated Not used by the plugin and not thread-safe, the organizations are kept for each DOAP file.
      */
-    public static DoapUtil.Organization addOrganization(String name, String url) {
+    @Deprecated
+    public static synchronized DoapUtil.Organization addOrganization(String name, String url) {
         Organization organization = organizations.get(name);
 
         if (organization == null) {
@@ -373,17 +444,17 @@ public class DoapUtil {
         return organization;
     }
 
-    // unique RDF blank node index scoped internal to the DOAP file
-    private static int nodeNumber = 1;
-
     /**
      * Get a unique (within the DoaP file) RDF blank node ID.
      *
      * @return the nodeID
      * @see <a href="http://www.w3.org/TR/rdf-syntax-grammar/#section-Syntax-blank-nodes">
      *      http://www.w3.org/TR/rdf-syntax-grammar/#section-Syntax-blank-nodes</a>
+     * @deprecated Not used by the plugin, the node IDs are counted for each DOAP file or derived from the content of
+     *             the node, see {@link #getContentNodeId(String, String...)}.
      */
-    public static String getNodeId() {
+    @Deprecated
+    public static synchronized String getNodeId() {
         return "b" + nodeNumber++;
     }
 
@@ -391,11 +462,128 @@ public class DoapUtil {
      * Get the set of Organizations that people are members of.
      *
      * @return Map.EntrySet of DoapUtil.Organization
+     * @deprecated Not used by the plugin and not thread-safe, the organizations are kept for each DOAP file.
      */
-    public static Set<Entry<String, DoapUtil.Organization>> getOrganizations() {
+    @Deprecated
+    public static synchronized Set<Entry<String, DoapUtil.Organization>> getOrganizations() {
         return organizations.entrySet();
     }
 
+    /**
+     * Get a RDF blank node ID derived from the given content, so that the same content always has the same ID.
+     *
+     * @param first the first property of the node, could be null
+     * @param rest the other properties of the node, not null
+     * @return the nodeID
+     * @since 3.0.0
+     */
+    public static String getContentNodeId(String first, String... rest) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        update(digest, first);
+        for (String value : rest) {
+            update(digest, value);
+        }
+
+        StringBuilder nodeId = new StringBuilder("b");
+        byte[] bytes = digest.digest();
+        for (int i = 0; i < 8; i++) {
+            nodeId.append(String.format("%02x", bytes[i]));
+        }
+        return nodeId.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Parse the timestamp of a reproducible build, as <code>project.build.outputTimestamp</code>.
+     *
+     * @param outputTimestamp either formatted as ISO-8601 <code>yyyy-MM-dd'T'HH:mm:ssXXX</code> or as the number of
+     *            seconds since the epoch, could be null
+     * @return the date, or <code>null</code> if the timestamp is not defined, i.e. empty or a single character
+     * @throws IllegalArgumentException if the timestamp is not valid
+     * @since 3.0.0
+     */
+    public static Date parseOutputTimestamp(String outputTimestamp) {
+        // a single character disables the reproducible output, as for the Maven Archiver
+        if (outputTimestamp == null || outputTimestamp.trim().length() < 2) {
+            return null;
+        }
+
+        String value = outputTimestamp.trim();
+        if (StringUtils.isNumeric(value)) {
+            return new Date(Long.parseLong(value) * 1000L);
+        }
+
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                    "Invalid outputTimestamp '" + value + "', expected an ISO-8601 date time or seconds since epoch",
+                    e);
+        }
+    }
+
+    /**
+     * Write the given content to a file, only if the file does not already have this content. The file is replaced
+     * atomically, through a temporary file in the same directory, so it is never left partially written.
+     *
+     * @param file not null
+     * @param content not null
+     * @return <code>true</code> if the file was written, <code>false</code> if it was unchanged
+     * @throws IOException if any
+     * @since 3.0.0
+     */
+    public static boolean writeIfChanged(File file, byte[] content) throws IOException {
+        if (hasContent(file, content)) {
+            return false;
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            Files.write(tmp.toPath(), content);
+            try {
+                Files.move(
+                        tmp.toPath(),
+                        file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+
+        return true;
+    }
+
+    private static boolean hasContent(File file, byte[] content) throws IOException {
+        if (!file.isFile() || file.length() != content.length) {
+            return false;
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            for (byte b : content) {
+                if (in.read() != (b & 0xFF)) {
+                    return false;
+                }
+            }
+            return in.read() == -1;
+        }
+    }
+
     /**
      * Validate the given DOAP file.
      *
@@ -484,45 +672,7 @@ public class DoapUtil {
             return value.trim();
         }
 
-        RegexBasedInterpolator interpolator = new RegexBasedInterpolator();
-        try {
-            interpolator.addValueSource(new EnvarBasedValueSource());
-        } catch (IOException e) {
-            // ignore
-        }
-        interpolator.addValueSource(new PropertiesBasedValueSource(System.getProperties()));
-        interpolator.addValueSource(new PropertiesBasedValueSource(project.getProperties()));
-        interpolator.addValueSource(new PrefixedObjectValueSource("project", project));
-        interpolator.addValueSource(new PrefixedObjectValueSource("pom", project));
-        interpolator.addValueSource(new ObjectBasedValueSource(project) {
-            @Override
-            public Object getValue(String expression) {
-                try {
-                    return ReflectionValueExtractor.evaluate(expression, project, true);
-                } catch (Exception e) {
-                    addFeedback("Failed to extract \'" + expression + "\' from: " + project, e);
-                }
-
-                return null;
-            }
-        });
-
-        if (settings != null) {
-            interpolator.addValueSource(new PrefixedObjectValueSource("settings", settings));
-        }
-
-        String interpolatedValue = value;
-        try {
-            interpolatedValue = interpolator.interpolate(value).trim();
-        } catch (InterpolationException e) {
-            // ignore
-        }
-
-        if (interpolatedValue.startsWith("${")) {
-            return null;
-        }
-
-        return interpolatedValue;
+        return new DoapInterpolator(project, settings).interpolate(value);
     }
 
     // ----------------------------------------------------------------------
@@ -543,80 +693,13 @@ public class DoapUtil {
      */
     private static Map<String, List<Contributor>> filterContributorsByDoapRoles(
             I18N i18n, List<Contributor> developersOrContributors) {
-        Map<String, List<Contributor>> returnMap = new HashMap<>(7);
-        returnMap.put("maintainers", new ArrayList<>());
-        returnMap.put("developers", new ArrayList<>());
-        returnMap.put("documenters", new ArrayList<>());
-        returnMap.put("translators", new ArrayList<>());
-        returnMap.put("testers", new ArrayList<>());
-        returnMap.put("helpers", new ArrayList<>());
-        returnMap.put("unknowns", new ArrayList<>());
-
-        if (developersOrContributors == null || developersOrContributors.isEmpty()) {
-            return returnMap;
-        }
-
-        for (Contributor contributor : developersOrContributors) {
-            List<String> roles = contributor.getRoles();
-
-            if (roles != null && roles.size() != 0) {
-                for (String role : roles) {
-                    role = role.toLowerCase(Locale.ENGLISH);
-                    if (role.contains(getLowerCaseString(i18n, "doap.maintainer"))) {
-                        if (!returnMap.get("maintainers").contains(contributor)) {
-                            returnMap.get("maintainers").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.developer"))) {
-                        if (!returnMap.get("developers").contains(contributor)) {
-                            returnMap.get("developers").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.documenter"))) {
-                        if (!returnMap.get("documenters").contains(contributor)) {
-                            returnMap.get("documenters").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.translator"))) {
-                        if (!returnMap.get("translators").contains(contributor)) {
-                            returnMap.get("translators").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.tester"))) {
-                        if (!returnMap.get("testers").contains(contributor)) {
-                            returnMap.get("testers").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.helper"))) {
-                        if (!returnMap.get("helpers").contains(contributor)) {
-                            returnMap.get("helpers").add(contributor);
-                        }
-                    } else if (role.contains(getLowerCaseString(i18n, "doap.emeritus"))) {
-                        // Don't add as developer nor as contributor as the person is no longer involved
-                    } else {
-                        if (!returnMap.get("unknowns").contains(contributor)) {
-                            returnMap.get("unknowns").add(contributor);
-                        }
-                    }
-                }
-            } else {
-                if (!returnMap.get("unknowns").contains(contributor)) {
-                    returnMap.get("unknowns").add(contributor);
-                }
-            }
-        }
-
-        return returnMap;
-    }
-
-    /**
-     * @param i18n not null
-     * @param key not null
-     * @return lower case value for the key in the i18n bundle
-     */
-    private static String getLowerCaseString(I18N i18n, String key) {
-        return i18n.getString("doap-person", Locale.ENGLISH, key).toLowerCase(Locale.ENGLISH);
+        return new ContributorRoleClassifier(i18n, Locale.ENGLISH).classify(developersOrContributors);
     }
 
     /**
      * @return the Maven artefact version
      */
-    private static String getPluginVersion() {
+    static String getPluginVersion() {
         Properties pomProperties = new Properties();
 
         try (InputStream is = DoapUtil.class.getResourceAsStream(
@@ -635,19 +718,37 @@ public class DoapUtil {
 
     /**
      * Fork of {@link org.codehaus.plexus.interpolation.reflection.ReflectionValueExtractor} to care of list or arrays.
+     * <p>
+     * The expressions are compiled once into chains of getter method handles, cached by root class and expression.
+     * Each step of a chain remembers the getter of the last class it saw, the class of an intermediate value being
+     * usually always the same. The caches are thread-safe.
+     * </p>
      */
     static class ReflectionValueExtractor {
         @SuppressWarnings("rawtypes")
         private static final Class[] CLASS_ARGS = new Class[0];
 
-        private static final Object[] OBJECT_ARGS = new Object[0];
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
 
         /**
-         * Use a WeakHashMap here, so the keys (Class objects) can be garbage collected. This approach prevents permgen
-         * space overflows due to retention of discarded classloaders.
+         * Use a ClassValue here, so the classes can be garbage collected. This approach prevents permgen space
+         * overflows due to retention of discarded classloaders.
          */
-        @SuppressWarnings("rawtypes")
-        private static final Map<Class, ClassMap> CLASS_MAPS = new WeakHashMap<>();
+        private static final ClassValue<ClassMap> CLASS_MAPS = new ClassValue<ClassMap>() {
+            @Override
+            protected ClassMap computeValue(Class<?> type) {
+                return new ClassMap(type);
+            }
+        };
+
+        /** The compiled expressions, by root class then by expression. */
+        private static final ClassValue<ConcurrentMap<String, Step[]>> CHAINS =
+                new ClassValue<ConcurrentMap<String, Step[]>>() {
+                    @Override
+                    protected ConcurrentMap<String, Step[]> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
 
         private ReflectionValueExtractor() {}
 
@@ -662,80 +763,133 @@ public class DoapUtil {
                 expression = expression.substring(expression.indexOf('.') + 1);
             }
 
-            Object value = root;
+            if (root == null) {
+                return null;
+            }
 
             // ----------------------------------------------------------------------
             // Walk the dots and retrieve the ultimate value desired from the
             // MavenProject instance.
             // ----------------------------------------------------------------------
 
-            StringTokenizer parser = new StringTokenizer(expression, ".");
-
-            while (parser.hasMoreTokens()) {
-                String token = parser.nextToken();
+            Object value = root;
+            for (Step step : CHAINS.get(root.getClass()).computeIfAbsent(expression, Step::compile)) {
                 if (value == null) {
                     return null;
                 }
 
-                StringTokenizer parser2 = new StringTokenizer(token, "[]");
-                int index = -1;
-                if (parser2.countTokens() > 1) {
-                    token = parser2.nextToken();
-                    try {
-                        index = Integer.parseInt(parser2.nextToken());
-                    } catch (NumberFormatException e) {
-                        // ignore
-                    }
+                value = step.apply(value);
+                if (value == null) {
+                    return null;
                 }
+            }
 
-                final ClassMap classMap = getClassMap(value.getClass());
+            return value;
+        }
 
-                final String methodBase = StringUtils.capitalizeFirstLetter(token);
+        /**
+         * A property of an expression, with an optional index if the property is a list or an array.
+         */
+        private static class Step {
+            private final String methodBase;
 
-                String methodName = "get" + methodBase;
+            private final int index;
 
-                Method method = classMap.findMethod(methodName, CLASS_ARGS);
+            /** The getter of the last class seen, replaced when another class is seen. */
+            private volatile Getter getter;
 
-                if (method == null) {
-                    // perhaps this is a boolean property??
-                    methodName = "is" + methodBase;
+            Step(String methodBase, int index) {
+                this.methodBase = methodBase;
+                this.index = index;
+            }
 
-                    method = classMap.findMethod(methodName, CLASS_ARGS);
+            static Step[] compile(String expression) {
+                List<Step> steps = new ArrayList<>();
+                StringTokenizer parser = new StringTokenizer(expression, ".");
+                while (parser.hasMoreTokens()) {
+                    String token = parser.nextToken();
+
+                    StringTokenizer parser2 = new StringTokenizer(token, "[]");
+                    int index = -1;
+                    if (parser2.countTokens() > 1) {
+                        token = parser2.nextToken();
+                        try {
+                            index = Integer.parseInt(parser2.nextToken());
+                        } catch (NumberFormatException e) {
+                            // ignore
+                        }
+                    }
+
+                    steps.add(new Step(StringUtils.capitalizeFirstLetter(token), index));
                 }
 
-                if (method == null) {
+                return steps.toArray(new Step[0]);
+            }
+
+            /**
+             * @param value not null
+             * @return the value of the property, or <code>null</code> if the class of the value has no such property
+             * @throws Exception if any
+             */
+            Object apply(Object value) throws Exception {
+                Getter current = getter;
+                if (current == null || current.type != value.getClass()) {
+                    current = new Getter(value.getClass(), findGetter(value.getClass()));
+                    getter = current;
+                }
+                if (current.handle == null) {
                     return null;
                 }
 
-                value = method.invoke(value, OBJECT_ARGS);
-                if (value == null) {
+                Object result;
+                try {
+                    result = (Object) current.handle.invokeExact(value);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+
+                if (result == null) {
                     return null;
                 }
-                if (Collection.class.isAssignableFrom(value.getClass())) {
-                    ClassMap classMap2 = getClassMap(value.getClass());
+                if (result instanceof Collection) {
+                    result = ((Collection<?>) result).toArray();
+                }
+                if (result.getClass().isArray()) {
+                    result = ((Object[]) result)[index];
+                }
+                return result;
+            }
 
-                    Method method2 = classMap2.findMethod("toArray", CLASS_ARGS);
+            private MethodHandle findGetter(Class<?> type) throws Exception {
+                ClassMap classMap = CLASS_MAPS.get(type);
 
-                    value = method2.invoke(value, OBJECT_ARGS);
+                Method method = classMap.findMethod("get" + methodBase, CLASS_ARGS);
+                if (method == null) {
+                    // perhaps this is a boolean property??
+                    method = classMap.findMethod("is" + methodBase, CLASS_ARGS);
                 }
-                if (value.getClass().isArray()) {
-                    value = ((Object[]) value)[index];
+                if (method == null) {
+                    return null;
                 }
-            }
 
-            return value;
+                return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+            }
         }
 
-        private static ClassMap getClassMap(Class<? extends Object> clazz) {
-            ClassMap classMap = CLASS_MAPS.get(clazz);
+        /**
+         * The getter of a property for a class, <code>null</code> if the class has no such property.
+         */
+        private static class Getter {
+            private final Class<?> type;
 
-            if (classMap == null) {
-                classMap = new ClassMap(clazz);
+            private final MethodHandle handle;
 
-                CLASS_MAPS.put(clazz, classMap);
+            Getter(Class<?> type, MethodHandle handle) {
+                this.type = type;
+                this.handle = handle;
             }
-
-            return classMap;
         }
     }
 }
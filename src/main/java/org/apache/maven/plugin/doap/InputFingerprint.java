@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+/**
+ * A SHA-256 fingerprint of the inputs of a DOAP file, to skip its generation when nothing changed.
+ * <p>
+ * The inputs are added by name, in a fixed order. The option objects are added through their getters, sorted by name,
+ * and the maps sorted by key, so the fingerprint does not depend on any iteration order.
+ * </p>
+ * <p>
+ * The <code>${...}</code> expressions found in the added values are recorded: their interpolated values, e.g. from
+ * the settings or the environment, are inputs too, to be added with {@link #getExpressions()}.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class InputFingerprint {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final Pattern EXPRESSION_PATTERN = Pattern.compile("\\$\\{[^}]+\\}");
+
+    private final MessageDigest digest;
+
+    private final Set<String> expressions = new TreeSet<>();
+
+    InputFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * @param name not null
+     * @param value could be null, an array, a collection, a map or any object with a stable
+     *            <code>toString()</code>
+     * @return this fingerprint
+     */
+    InputFingerprint add(String name, Object value) {
+        String string = toString(value);
+        findExpressions(string);
+        update(name);
+        update("=");
+        update(string);
+        update("\n");
+        return this;
+    }
+
+    /**
+     * Add an object through its public getters, i.e. the Modello options.
+     *
+     * @param name not null
+     * @param bean could be null
+     * @return this fingerprint
+     */
+    InputFingerprint addBean(String name, Object bean) {
+        if (bean == null) {
+            return add(name, null);
+        }
+
+        List<Method> getters = new ArrayList<>();
+        for (Method method : bean.getClass().getMethods()) {
+            if (isGetter(method)) {
+                getters.add(method);
+            }
+        }
+        getters.sort(Comparator.comparing(Method::getName));
+
+        for (Method getter : getters) {
+            try {
+                add(name + "." + getter.getName(), getter.invoke(bean));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                add(name + "." + getter.getName(), e.getClass().getName());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add a Maven model, serialized as a POM.
+     *
+     * @param name not null
+     * @param model could be null
+     * @return this fingerprint
+     */
+    InputFingerprint addModel(String name, Model model) {
+        if (model == null) {
+            return add(name, null);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            new MavenXpp3Writer().write(out, model);
+        } catch (IOException e) {
+            // not thrown by a memory stream
+            throw new IllegalStateException(e);
+        }
+
+        byte[] pom = out.toByteArray();
+        findExpressions(new String(pom, StandardCharsets.UTF_8));
+        update(name);
+        update("=");
+        digest.update(pom);
+        update("\n");
+        return this;
+    }
+
+    /**
+     * @return the <code>${...}</code> expressions found in the values added so far, sorted
+     */
+    Set<String> getExpressions() {
+        return new TreeSet<>(expressions);
+    }
+
+    /**
+     * @return the fingerprint, as an hexadecimal string
+     */
+    String toHex() {
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param file not null
+     * @return the stored fingerprint, or <code>null</code> if the file does not exist or could not be read
+     */
+    static String read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param file not null
+     * @param fingerprint not null
+     * @throws IOException if any
+     */
+    static void write(File file, String fingerprint) throws IOException {
+        Files.write(file.toPath(), (fingerprint + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void findExpressions(String value) {
+        if (value.contains("${")) {
+            Matcher matcher = EXPRESSION_PATTERN.matcher(value);
+            while (matcher.find()) {
+                expressions.add(matcher.group());
+            }
+        }
+    }
+
+    private void update(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isGetter(Method method) {
+        return method.getParameterTypes().length == 0
+                && !Modifier.isStatic(method.getModifiers())
+                && method.getDeclaringClass() != Object.class
+                && (method.getName().startsWith("get") || method.getName().startsWith("is"));
+    }
+
+    private static String toString(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Object[]) {
+            return toString(Arrays.asList((Object[]) value));
+        }
+        if (value instanceof Map) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(toString(entry.getKey()), toString(entry.getValue()));
+            }
+            return sorted.toString();
+        }
+        if (value instanceof Collection) {
+            List<String> values = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                values.add(toString(element));
+            }
+            return values.toString();
+        }
+        if (value instanceof File) {
+            return ((File) value).getAbsolutePath();
+        }
+
+        return value.toString();
+    }
+}
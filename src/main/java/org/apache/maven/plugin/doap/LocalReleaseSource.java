@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Lists the releases of a project from the local repository only, for offline builds.
+ * <p>
+ * The versions are read from the <code>maven-metadata-&lt;repoId&gt;.xml</code> files downloaded from the release
+ * repositories, and from the version directories whose <code>_remote.repositories</code> marker records a remote
+ * origin. The snapshot versions are ignored, like online. A file release is listed for each remote repository
+ * recorded as the origin of a release file present in the local repository. No network request is made.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class LocalReleaseSource {
+    /** The marker of the enhanced local repository recording the origin of the downloaded files. */
+    private static final String REMOTE_REPOSITORIES_MARKER = "_remote.repositories";
+
+    private static final String METADATA_PREFIX = "maven-metadata-";
+
+    private static final String METADATA_SUFFIX = ".xml";
+
+    /** The repository id of the files installed by the local build, not released. */
+    private static final String LOCAL_REPOSITORY_ID = "local";
+
+    private final ArtifactFactory artifactFactory;
+
+    private final ArtifactRepository localRepository;
+
+    private final Log log;
+
+    /**
+     * @param artifactFactory not null
+     * @param localRepository not null
+     * @param log not null
+     */
+    LocalReleaseSource(ArtifactFactory artifactFactory, ArtifactRepository localRepository, Log log) {
+        this.artifactFactory = artifactFactory;
+        this.localRepository = localRepository;
+        this.log = log;
+    }
+
+    /**
+     * Read and merge the versioning of the given artifact known by the local repository.
+     *
+     * @param groupId not null
+     * @param artifactId not null
+     * @param repositories the remote repositories, only the metadata of their release repositories is read, not null
+     * @return the merged versioning, with the versions in ascending order, or <code>null</code> if the local
+     *         repository knows no release of the artifact
+     */
+    Versioning resolve(String groupId, String artifactId, List<ArtifactRepository> repositories) {
+        File directory = new File(localRepository.getBasedir(), groupId.replace('.', '/') + "/" + artifactId);
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return null;
+        }
+
+        Set<String> releaseRepositoryIds = new HashSet<>();
+        for (ArtifactRepository repo : repositories) {
+            if (ReleaseMetadataResolver.isReleaseRepository(repo)) {
+                releaseRepositoryIds.add(repo.getId());
+            }
+        }
+
+        List<Versioning> versionings = new ArrayList<>();
+        List<String> downloadedVersions = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && name.startsWith(METADATA_PREFIX) && name.endsWith(METADATA_SUFFIX)) {
+                String repositoryId =
+                        name.substring(METADATA_PREFIX.length(), name.length() - METADATA_SUFFIX.length());
+                if (!LOCAL_REPOSITORY_ID.equals(repositoryId) && releaseRepositoryIds.contains(repositoryId)) {
+                    Versioning versioning = readVersioning(file);
+                    if (versioning != null) {
+                        versioning.setVersions(withoutSnapshots(versioning.getVersions()));
+                        versionings.add(versioning);
+                    }
+                }
+            } else if (file.isDirectory() && !ArtifactUtils.isSnapshot(name) && hasRemoteOrigin(readMarker(file))) {
+                downloadedVersions.add(name);
+            }
+        }
+
+        if (!downloadedVersions.isEmpty()) {
+            Versioning versioning = new Versioning();
+            versioning.setVersions(downloadedVersions);
+            versionings.add(versioning);
+        }
+
+        return ReleaseMetadataResolver.merge(versionings);
+    }
+
+    /**
+     * Find the file releases of the given versions present in the local repository.
+     *
+     * @param groupId not null
+     * @param artifactId not null
+     * @param packaging not null
+     * @param versions not null
+     * @param repositories not null
+     * @return a map with the given versions as keys, in the same order, and the URLs of the file releases in the
+     *         recorded origin repositories as values, in the order of the given repositories
+     */
+    Map<String, List<String>> probe(
+            String groupId,
+            String artifactId,
+            String packaging,
+            List<String> versions,
+            List<ArtifactRepository> repositories) {
+        Map<String, List<String>> fileReleases = new LinkedHashMap<>();
+        for (String version : versions) {
+            List<String> urls = new ArrayList<>();
+            fileReleases.put(version, urls);
+
+            Artifact artifactRelease = artifactFactory.createArtifact(groupId, artifactId, version, null, packaging);
+            if (artifactRelease == null) {
+                continue;
+            }
+
+            File file = new File(localRepository.getBasedir(), localRepository.pathOf(artifactRelease));
+            if (!file.isFile()) {
+                log.debug(artifactRelease + " is not in the local repository");
+                continue;
+            }
+
+            Properties marker = readMarker(file.getParentFile());
+            for (ArtifactRepository repo : repositories) {
+                if (marker.containsKey(file.getName() + ">" + repo.getId())) {
+                    urls.add(repo.getUrl() + "/" + repo.pathOf(artifactRelease));
+                }
+            }
+        }
+
+        return fileReleases;
+    }
+
+    private static List<String> withoutSnapshots(List<String> versions) {
+        List<String> releases = new ArrayList<>(versions.size());
+        for (String version : versions) {
+            if (!ArtifactUtils.isSnapshot(version)) {
+                releases.add(version);
+            }
+        }
+        return releases;
+    }
+
+    private Versioning readVersioning(File file) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return new MetadataXpp3Reader().read(in, false).getVersioning();
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Unable to read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param directory a version directory, not null
+     * @return the entries of the <code>_remote.repositories</code> marker, i.e. <code>foo-1.0.jar&gt;central</code>,
+     *         empty if there is no marker
+     */
+    private Properties readMarker(File directory) {
+        Properties marker = new Properties();
+        File file = new File(directory, REMOTE_REPOSITORIES_MARKER);
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                marker.load(in);
+            } catch (IOException e) {
+                log.debug("Unable to read " + file + ": " + e.getMessage());
+            }
+        }
+
+        return marker;
+    }
+
+    /**
+     * @param marker not null
+     * @return <code>true</code> if a file of the marker was downloaded from a remote repository
+     */
+    private static boolean hasRemoteOrigin(Properties marker) {
+        for (String key : marker.stringPropertyNames()) {
+            int index = key.indexOf('>');
+            if (index >= 0 && index < key.length() - 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Fetches the <code>maven-metadata.xml</code> of an artifact with a conditional request, so that unchanged metadata
+ * costs a <code>304 Not Modified</code> round trip instead of a full transfer.
+ * <p>
+ * The last fetched metadata of each repository is stored with its <code>ETag</code> and <code>Last-Modified</code>
+ * validators in the given directory, by repository ID and URL, and revalidated with <code>If-None-Match</code> and
+ * <code>If-Modified-Since</code>. The metadata and its validators are written atomically, together under a file
+ * lock, so the directory can be shared by concurrent builds on the same machine. Only the HTTP repositories without
+ * authentication nor transport configuration, like HTTP headers or TLS settings, are revalidated, the others are
+ * resolved by Resolver.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class MetadataRevalidator {
+    private static final String METADATA = "maven-metadata.xml";
+
+    private static final String ETAG = "etag";
+
+    private static final String LAST_MODIFIED = "last-modified";
+
+    /** Guards the file locks of this JVM, as a file lock is held on behalf of the whole JVM. */
+    private static final ConcurrentMap<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    /** The transport configuration only applied by the Maven transport, for all the repositories or for one. */
+    private static final String[] TRANSPORT_CONFIGURATION = {
+        ConfigurationProperties.HTTP_HEADERS,
+        ConfigurationProperties.HTTPS_SECURITY_MODE,
+        "aether.connector.https.cipherSuites",
+        "aether.connector.https.protocols"
+    };
+
+    /** The result of a revalidation. */
+    static class Result {
+        private final File file;
+
+        private final boolean unchanged;
+
+        Result(File file, boolean unchanged) {
+            this.file = file;
+            this.unchanged = unchanged;
+        }
+
+        /**
+         * @return the metadata file, or <code>null</code> if the repository has no metadata for the artifact
+         */
+        File getFile() {
+            return file;
+        }
+
+        /**
+         * @return <code>true</code> if the repository answered that the stored metadata is unchanged
+         */
+        boolean isUnchanged() {
+            return unchanged;
+        }
+    }
+
+    private final File directory;
+
+    private final RepositorySystemSession repositorySystemSession;
+
+    private final Log log;
+
+    /**
+     * @param directory the directory of the stored metadata, not null
+     * @param repositorySystemSession the session of the timeouts and user agent, not null
+     * @param log not null
+     */
+    MetadataRevalidator(File directory, RepositorySystemSession repositorySystemSession, Log log) {
+        this.directory = directory;
+        this.repositorySystemSession = repositorySystemSession;
+        this.log = log;
+    }
+
+    /**
+     * @param repository the repository with its authentication, proxy and mirror set up, not null
+     * @param repositorySystemSession the session of the transport configuration, not null
+     * @return <code>true</code> if the metadata of the repository can be revalidated
+     */
+    static boolean supports(RemoteRepository repository, RepositorySystemSession repositorySystemSession) {
+        String protocol = repository.getProtocol().toLowerCase(Locale.ENGLISH);
+        if (!("http".equals(protocol) || "https".equals(protocol))
+                || repository.getAuthentication() != null
+                || (repository.getProxy() != null && repository.getProxy().getAuthentication() != null)) {
+            return false;
+        }
+
+        // the HTTP headers, TLS settings or server configuration of Maven are only applied by its transport
+        Map<String, Object> properties = repositorySystemSession.getConfigProperties();
+        String repositorySuffix = "." + repository.getId();
+        for (String key : TRANSPORT_CONFIGURATION) {
+            if (properties.containsKey(key) || properties.containsKey(key + repositorySuffix)) {
+                return false;
+            }
+        }
+        for (String key : properties.keySet()) {
+            if (key.startsWith("aether.") && key.endsWith(repositorySuffix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fetch the metadata of an artifact, unless the stored metadata is unchanged.
+     *
+     * @param repository a supported repository, not null
+     * @param groupId not null
+     * @param artifactId not null
+     * @param timeoutMillis the maximum connect and read timeouts, i.e. the remaining time of the discovery
+     * @return the result, not null
+     * @throws IOException if the repository could not be reached or answered an error
+     */
+    Result fetch(RemoteRepository repository, String groupId, String artifactId, long timeoutMillis)
+            throws IOException {
+        File artifactDirectory = new File(new File(directory, groupId), artifactId);
+        // the same ID could be used for another server, its validators should not be sent to the new one
+        String key = repository.getId() + "-"
+                + new InputFingerprint().add("url", repository.getUrl()).toHex().substring(0, 16);
+        File file = new File(artifactDirectory, "maven-metadata-" + key + ".xml");
+        File validatorsFile = new File(artifactDirectory, "maven-metadata-" + key + ".properties");
+
+        // the metadata and its validators are read and written together, by one thread or build at a time
+        Path lockFile = new File(artifactDirectory, "maven-metadata-" + key + ".lock")
+                .toPath()
+                .toAbsolutePath()
+                .normalize();
+        synchronized (JVM_LOCKS.computeIfAbsent(lockFile, k -> new Object())) {
+            Files.createDirectories(artifactDirectory.toPath());
+            try (FileChannel channel = FileChannel.open(
+                            lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                return fetch(repository, groupId, artifactId, timeoutMillis, file, validatorsFile);
+            }
+        }
+    }
+
+    private Result fetch(
+            RemoteRepository repository,
+            String groupId,
+            String artifactId,
+            long timeoutMillis,
+            File file,
+            File validatorsFile)
+            throws IOException {
+        String baseUrl = repository.getUrl().endsWith("/") ? repository.getUrl() : repository.getUrl() + "/";
+        URL url = new URL(baseUrl + groupId.replace('.', '/') + "/" + artifactId + "/" + METADATA);
+
+        Properties validators = new Properties();
+        if (file.isFile() && validatorsFile.isFile()) {
+            try (InputStream in = Files.newInputStream(validatorsFile.toPath())) {
+                validators.load(in);
+            }
+        }
+
+        HttpURLConnection connection = open(repository, url, timeoutMillis);
+        try {
+            if (validators.getProperty(ETAG) != null) {
+                connection.setRequestProperty("If-None-Match", validators.getProperty(ETAG));
+            }
+            if (validators.getProperty(LAST_MODIFIED) != null) {
+                connection.setRequestProperty("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && !validators.isEmpty()) {
+                log.debug(url + " is unchanged");
+                return new Result(file, true);
+            }
+            if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(validatorsFile.toPath());
+                return new Result(null, false);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException(url + " answered " + status + " " + connection.getResponseMessage());
+            }
+
+            try (InputStream in = connection.getInputStream()) {
+                write(out -> copy(in, out), file.toPath());
+            }
+
+            validators.clear();
+            if (connection.getHeaderField("ETag") != null) {
+                validators.setProperty(ETAG, connection.getHeaderField("ETag"));
+            }
+            if (connection.getHeaderField("Last-Modified") != null) {
+                validators.setProperty(LAST_MODIFIED, connection.getHeaderField("Last-Modified"));
+            }
+            write(out -> validators.store(out, "Validators of " + url), validatorsFile.toPath());
+
+            return new Result(file, false);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection open(RemoteRepository repository, URL url, long timeoutMillis) throws IOException {
+        org.eclipse.aether.repository.Proxy proxy = repository.getProxy();
+        HttpURLConnection connection = (HttpURLConnection) (proxy == null
+                ? url.openConnection(Proxy.NO_PROXY)
+                : url.openConnection(
+                        new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxy.getHost(), proxy.getPort()))));
+        connection.setConnectTimeout(bound(
+                getInteger(ConfigurationProperties.CONNECT_TIMEOUT, ConfigurationProperties.DEFAULT_CONNECT_TIMEOUT),
+                timeoutMillis));
+        connection.setReadTimeout(bound(
+                getInteger(ConfigurationProperties.REQUEST_TIMEOUT, ConfigurationProperties.DEFAULT_REQUEST_TIMEOUT),
+                timeoutMillis));
+        Object userAgent = repositorySystemSession.getConfigProperties().get(ConfigurationProperties.USER_AGENT);
+        connection.setRequestProperty(
+                "User-Agent", userAgent != null ? userAgent.toString() : ConfigurationProperties.DEFAULT_USER_AGENT);
+        // the stored metadata is revalidated by the repository, not by an intermediate cache
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    /**
+     * @param timeout the configured timeout, <code>0</code> for none
+     * @param timeoutMillis the remaining time of the discovery, <code>Long.MAX_VALUE</code> for none
+     * @return the timeout bounded by the remaining time, at least 1 ms as <code>0</code> is no timeout
+     */
+    static int bound(int timeout, long timeoutMillis) {
+        if (timeoutMillis == Long.MAX_VALUE) {
+            return timeout;
+        }
+        long remaining = Math.max(1, Math.min(Integer.MAX_VALUE, timeoutMillis));
+        return (int) (timeout > 0 ? Math.min(timeout, remaining) : remaining);
+    }
+
+    private int getInteger(String key, int defaultValue) {
+        Object value = repositorySystemSession.getConfigProperties().get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /** The content of a stored file. */
+    private interface Content {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    private static void write(Content content, Path target) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                content.write(out);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
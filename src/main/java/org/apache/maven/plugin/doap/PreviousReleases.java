@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.RDFReader;
+import org.apache.jena.rdf.model.ResIterator;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.rdf.model.impl.RDFDefaultErrorHandler;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * The releases of a previously generated DOAP file, reused by the incremental mode instead of discovering them
+ * again.
+ *
+ * @since 3.0.0
+ */
+class PreviousReleases {
+    /**
+     * A release of the previous DOAP file.
+     */
+    static class Release {
+        private final String revision;
+
+        private final List<String> fileReleases;
+
+        private final String created;
+
+        private final String checksum;
+
+        Release(String revision, List<String> fileReleases, String created, String checksum) {
+            this.revision = revision;
+            this.fileReleases = fileReleases;
+            this.created = created;
+            this.checksum = checksum;
+        }
+
+        /**
+         * @return the version of the release
+         */
+        String getRevision() {
+            return revision;
+        }
+
+        /**
+         * @return the URLs of the file releases, in no particular order
+         */
+        List<String> getFileReleases() {
+            return fileReleases;
+        }
+
+        /**
+         * @return the created date, could be null
+         */
+        String getCreated() {
+            return created;
+        }
+
+        /**
+         * @return the SPDX checksum, formatted as <code>algorithm:value</code>, could be null
+         */
+        String getChecksum() {
+            return checksum;
+        }
+    }
+
+    private final Map<String, Release> releases;
+
+    private PreviousReleases(Map<String, Release> releases) {
+        this.releases = releases;
+    }
+
+    /**
+     * Read the releases of a DOAP file. A missing or invalid file has no release, so all the releases are discovered
+     * again.
+     *
+     * @param doapFile the previously generated DOAP file, not null
+     * @param namespaceURI the DOAP namespace URI, not null
+     * @param log not null
+     * @return the releases of the DOAP file, by version
+     */
+    static PreviousReleases read(File doapFile, String namespaceURI, Log log) {
+        Map<String, Release> releases = new HashMap<>();
+        if (!doapFile.isFile()) {
+            return new PreviousReleases(releases);
+        }
+
+        Model model = ModelFactory.createDefaultModel();
+        RDFReader r = model.getReader("RDF/XML");
+        final List<String> errors = new ArrayList<>();
+        r.setErrorHandler(new RDFDefaultErrorHandler() {
+            @Override
+            public void error(Exception e) {
+                errors.add(e.getMessage());
+            }
+
+            @Override
+            public void fatalError(Exception e) {
+                errors.add(e.getMessage());
+            }
+        });
+
+        try (InputStream in = Files.newInputStream(doapFile.toPath())) {
+            r.read(model, in, doapFile.toURI().toString());
+        } catch (IOException | RuntimeException e) {
+            errors.add(e.getMessage());
+        }
+
+        if (!errors.isEmpty()) {
+            log.warn("Unable to read the releases of the previous DOAP file " + doapFile + ", all the releases will "
+                    + "be discovered again: " + errors.get(0));
+            return new PreviousReleases(releases);
+        }
+
+        Property revision = model.createProperty(namespaceURI, "revision");
+        Property fileRelease = model.createProperty(namespaceURI, "file-release");
+        Property created = model.createProperty(namespaceURI, "created");
+        Property checksum = model.createProperty(DoapUtil.SPDX_NAMESPACE_URI, "checksum");
+        Property algorithm = model.createProperty(DoapUtil.SPDX_NAMESPACE_URI, "algorithm");
+        Property checksumValue = model.createProperty(DoapUtil.SPDX_NAMESPACE_URI, "checksumValue");
+        String algorithmPrefix = DoapUtil.SPDX_NAMESPACE_URI + "checksumAlgorithm_";
+
+        ResIterator versions = model.listResourcesWithProperty(revision);
+        while (versions.hasNext()) {
+            Resource version = versions.next();
+            String name = toString(version.getProperty(revision).getObject());
+
+            List<String> urls = new ArrayList<>();
+            StmtIterator statements = version.listProperties(fileRelease);
+            while (statements.hasNext()) {
+                urls.add(toString(statements.next().getObject()));
+            }
+
+            String releaseChecksum = null;
+            Statement checksumStatement = version.getProperty(checksum);
+            if (checksumStatement != null && checksumStatement.getObject().isResource()) {
+                Resource checksumResource = checksumStatement.getResource();
+                Statement algorithmStatement = checksumResource.getProperty(algorithm);
+                Statement valueStatement = checksumResource.getProperty(checksumValue);
+                if (algorithmStatement != null && valueStatement != null) {
+                    String algorithmUri = toString(algorithmStatement.getObject());
+                    if (algorithmUri.startsWith(algorithmPrefix)) {
+                        releaseChecksum = algorithmUri.substring(algorithmPrefix.length()) + ":"
+                                + toString(valueStatement.getObject());
+                    }
+                }
+            }
+
+            Statement createdStatement = version.getProperty(created);
+            releases.put(
+                    name,
+                    new Release(
+                            name,
+                            urls,
+                            createdStatement != null ? toString(createdStatement.getObject()) : null,
+                            releaseChecksum));
+        }
+
+        return new PreviousReleases(releases);
+    }
+
+    /**
+     * @param version not null
+     * @return the release of the given version, or <code>null</code> if the previous DOAP file has none
+     */
+    Release get(String version) {
+        return releases.get(version);
+    }
+
+    /**
+     * @return the number of releases
+     */
+    int size() {
+        return releases.size();
+    }
+
+    /**
+     * Sort file release URLs in the order of their repository, as written by the release discovery. The URLs not
+     * matching any repository are listed last.
+     *
+     * @param urls not null
+     * @param repositories not null
+     * @return the sorted URLs
+     */
+    static List<String> sortByRepository(Collection<String> urls, List<ArtifactRepository> repositories) {
+        List<String> remaining = new ArrayList<>(urls);
+        Collections.sort(remaining);
+
+        List<String> sorted = new ArrayList<>(remaining.size());
+        for (ArtifactRepository repo : repositories) {
+            String prefix = repo.getUrl() + "/";
+            for (String url : new ArrayList<>(remaining)) {
+                if (url.startsWith(prefix)) {
+                    sorted.add(url);
+                    remaining.remove(url);
+                }
+            }
+        }
+        sorted.addAll(remaining);
+
+        return sorted;
+    }
+
+    private static String toString(RDFNode node) {
+        return node.isLiteral() ? node.asLiteral().getLexicalForm() : node.toString();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.model.DistributionManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * A persistent cache of the project descriptors of the <code>&lt;artifact/&gt;</code> mode, so that the DOAP file of
+ * a released artifact is generated again without building its project.
+ * <p>
+ * A descriptor only keeps the parts of the effective model a DOAP file is made of: the coordinates, the project
+ * information, the licenses, the persons, the mailing lists, the issue, CI and SCM management, the download URL and
+ * the properties. It is stored by coordinates and by hash of the POM files of the artifact and its parents in the
+ * local repository: a descriptor is only used while these POM files are unchanged.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ProjectDescriptorCache {
+    /** The maximum number of parents, to stop on a cycle. */
+    private static final int MAX_PARENTS = 64;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    private final ArtifactFactory artifactFactory;
+
+    private final ArtifactRepository localRepository;
+
+    private final Log log;
+
+    /**
+     * @param directory the directory of the descriptors, not null
+     * @param artifactFactory not null
+     * @param localRepository not null
+     * @param log not null
+     */
+    ProjectDescriptorCache(
+            File directory, ArtifactFactory artifactFactory, ArtifactRepository localRepository, Log log) {
+        this.directory = directory;
+        this.artifactFactory = artifactFactory;
+        this.localRepository = localRepository;
+        this.log = log;
+    }
+
+    /**
+     * @param groupId not null
+     * @param artifactId not null
+     * @param version not null
+     * @return the cached project, or <code>null</code> if there is none for the current POM files
+     */
+    MavenProject get(String groupId, String artifactId, String version) {
+        String hash = hashPomChain(groupId, artifactId, version);
+        if (hash == null) {
+            return null;
+        }
+
+        File file = getFile(groupId, artifactId, version, hash);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return new MavenProject(new MavenXpp3Reader().read(in, false));
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Ignoring the invalid project descriptor " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the descriptor of a project built from the repository, replacing the ones of previous POM files.
+     *
+     * @param project not null
+     */
+    void put(MavenProject project) {
+        String hash = hashPomChain(project.getGroupId(), project.getArtifactId(), project.getVersion());
+        if (hash == null) {
+            return;
+        }
+
+        File file = getFile(project.getGroupId(), project.getArtifactId(), project.getVersion(), hash);
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Path tmp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    new MavenXpp3Writer().write(out, reduce(project.getModel()));
+                }
+                try {
+                    Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+
+            // only the descriptors of previous POM files, not the temporary files of concurrent writers
+            File[] stale = file.getParentFile().listFiles((dir, name) -> name.endsWith(".pom"));
+            if (stale != null) {
+                for (File previous : stale) {
+                    if (!previous.equals(file)) {
+                        Files.deleteIfExists(previous.toPath());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to cache the project descriptor " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param model the effective model, not null
+     * @return a copy of the model with the parts used by a DOAP file only
+     */
+    static Model reduce(Model model) {
+        Model reduced = new Model();
+        reduced.setModelVersion(model.getModelVersion());
+        reduced.setModelEncoding(model.getModelEncoding());
+        reduced.setGroupId(model.getGroupId());
+        reduced.setArtifactId(model.getArtifactId());
+        reduced.setVersion(model.getVersion());
+        reduced.setPackaging(model.getPackaging());
+        reduced.setName(model.getName());
+        reduced.setDescription(model.getDescription());
+        reduced.setUrl(model.getUrl());
+        reduced.setInceptionYear(model.getInceptionYear());
+        reduced.setOrganization(model.getOrganization());
+        reduced.setLicenses(model.getLicenses());
+        reduced.setDevelopers(model.getDevelopers());
+        reduced.setContributors(model.getContributors());
+        reduced.setMailingLists(model.getMailingLists());
+        reduced.setIssueManagement(model.getIssueManagement());
+        reduced.setCiManagement(model.getCiManagement());
+        reduced.setScm(model.getScm());
+        if (model.getDistributionManagement() != null
+                && model.getDistributionManagement().getDownloadUrl() != null) {
+            DistributionManagement distributionManagement = new DistributionManagement();
+            distributionManagement.setDownloadUrl(model.getDistributionManagement().getDownloadUrl());
+            reduced.setDistributionManagement(distributionManagement);
+        }
+        reduced.setProperties(model.getProperties());
+        return reduced;
+    }
+
+    private File getFile(String groupId, String artifactId, String version, String hash) {
+        return new File(directory, groupId + "/" + artifactId + "/" + version + "/" + hash + ".pom");
+    }
+
+    /**
+     * @return the hash of the POM files of the artifact and its parents, or <code>null</code> if one of them is not
+     *         in the local repository
+     */
+    private String hashPomChain(String groupId, String artifactId, String version) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+
+        Set<String> visited = new HashSet<>();
+        String g = groupId;
+        String a = artifactId;
+        String v = version;
+        while (g != null && visited.size() < MAX_PARENTS && visited.add(g + ":" + a + ":" + v)) {
+            Artifact pom = artifactFactory.createProjectArtifact(g, a, v);
+            File file = new File(localRepository.getBasedir(), localRepository.pathOf(pom));
+
+            Model model;
+            try {
+                byte[] content = Files.readAllBytes(file.toPath());
+                digest.update(content);
+                model = new MavenXpp3Reader().read(new ByteArrayInputStream(content), false);
+            } catch (IOException | XmlPullParserException e) {
+                return null;
+            }
+
+            Parent parent = model.getParent();
+            g = parent != null ? parent.getGroupId() : null;
+            a = parent != null ? parent.getArtifactId() : null;
+            v = parent != null ? parent.getVersion() : null;
+        }
+
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
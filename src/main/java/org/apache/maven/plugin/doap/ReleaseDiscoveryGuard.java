@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Guards the release discovery against unhealthy repositories and bounds its overall duration.
+ * <p>
+ * Each repository has a circuit breaker: after <code>failureThreshold</code> consecutive failed requests, the
+ * repository is skipped for the rest of the discovery. A successful request, including one answering that the
+ * artifact does not exist, resets the count. The whole discovery also has an optional time budget, after which the
+ * callers stop waiting and keep the results confirmed so far.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ReleaseDiscoveryGuard {
+    private final int failureThreshold;
+
+    private final long deadline;
+
+    private final Log log;
+
+    /** Consecutive failures by repository URL. */
+    private final ConcurrentMap<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean timedOut = new AtomicBoolean();
+
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    /**
+     * @param failureThreshold the number of consecutive failures opening the circuit of a repository, <code>0</code>
+     *            or less to never skip a repository
+     * @param timeoutMillis the time budget of the discovery in milliseconds, <code>0</code> or less for no limit
+     * @param log not null
+     */
+    ReleaseDiscoveryGuard(int failureThreshold, long timeoutMillis, Log log) {
+        this.failureThreshold = failureThreshold;
+        this.deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        this.log = log;
+    }
+
+    /**
+     * @return the number of consecutive failures opening the circuit of a repository, <code>0</code> or less if the
+     *         circuit never opens
+     */
+    int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @param repository not null
+     * @return <code>true</code> if the repository should still be queried
+     */
+    boolean isAvailable(ArtifactRepository repository) {
+        return failureThreshold <= 0 || failures(repository).get() < failureThreshold;
+    }
+
+    /**
+     * Record a successful request to the repository.
+     *
+     * @param repository not null
+     */
+    void recordSuccess(ArtifactRepository repository) {
+        AtomicInteger count = failures(repository);
+        int current = count.get();
+        // an open circuit stays open
+        if (current > 0 && (failureThreshold <= 0 || current < failureThreshold)) {
+            count.compareAndSet(current, 0);
+        }
+    }
+
+    /**
+     * Record a failed request to the repository, opening its circuit after too many consecutive failures.
+     *
+     * @param repository not null
+     * @param reason the failure, not null
+     */
+    void recordFailure(ArtifactRepository repository, String reason) {
+        failed.set(true);
+        int count = failures(repository).incrementAndGet();
+        log.debug("Request to the repository " + repository.getId() + " failed: " + reason);
+        if (count == failureThreshold) {
+            log.warn("Skipping the repository " + repository.getId() + " for the release discovery after " + count
+                    + " consecutive failures: " + reason);
+        }
+    }
+
+    /**
+     * Open the circuit of the repository at once, i.e. when no connection can be made to it.
+     *
+     * @param repository not null
+     * @param reason the failure, not null
+     */
+    void trip(ArtifactRepository repository, String reason) {
+        failed.set(true);
+        if (failureThreshold <= 0) {
+            recordFailure(repository, reason);
+            return;
+        }
+
+        if (failures(repository).getAndSet(failureThreshold) < failureThreshold) {
+            log.warn("Skipping the repository " + repository.getId() + " for the release discovery: " + reason);
+        }
+    }
+
+    /**
+     * @return the remaining time budget in milliseconds, {@link Long#MAX_VALUE} if the discovery has no time limit
+     */
+    long remainingMillis() {
+        if (deadline == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * @return <code>true</code> if the time budget is exhausted
+     */
+    boolean isExpired() {
+        return deadline != 0 && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Mark the discovery as cut short by the time budget.
+     */
+    void timeout() {
+        timedOut.set(true);
+    }
+
+    /**
+     * @return <code>true</code> if some results were dropped because the time budget was exhausted
+     */
+    boolean isTimedOut() {
+        return timedOut.get();
+    }
+
+    /**
+     * @return <code>true</code> if no request failed and the time budget was not exhausted, i.e. the discovered
+     *         releases are complete
+     */
+    boolean isComplete() {
+        return !failed.get() && !timedOut.get();
+    }
+
+    private AtomicInteger failures(ArtifactRepository repository) {
+        return failures.computeIfAbsent(repository.getUrl(), k -> new AtomicInteger());
+    }
+}
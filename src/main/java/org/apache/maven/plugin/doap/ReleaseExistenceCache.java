@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Persistent cache of the release artifact existence checks of one <code>groupId:artifactId</code>.
+ * <p>
+ * Released artifacts are immutable, so a positive result never expires. A negative result expires after a
+ * configurable time to live, as the artifact may be deployed later. The entries are keyed by repository URL, GAV
+ * and packaging, and stored in one properties file per artifact, with the published checksum of the found artifacts.
+ * Reads and writes of the file are guarded by a file lock, so the cache can be shared by concurrent builds on the same
+ * machine.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ReleaseExistenceCache {
+    /** Prefix of the stored value of an artifact found in a repository. */
+    private static final char FOUND = '+';
+
+    /** Prefix of the stored value of an artifact not found in a repository. */
+    private static final char NOT_FOUND = '-';
+
+    /** Guards the file locks of this JVM, as a file lock is held on behalf of the whole JVM. */
+    private static final ConcurrentMap<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final File file;
+
+    private final String gav;
+
+    private final long negativeTtl;
+
+    private final Log log;
+
+    /** Entries read from the cache file, by key. */
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+    /** Entries recorded since the cache was opened, by key. */
+    private final Map<String, String> recorded = new ConcurrentHashMap<>();
+
+    private ReleaseExistenceCache(File file, String gav, long negativeTtl, Log log) {
+        this.file = file;
+        this.gav = gav;
+        this.negativeTtl = negativeTtl;
+        this.log = log;
+    }
+
+    /**
+     * Open the cache of the given artifact.
+     *
+     * @param directory the root directory of the cache, not null
+     * @param groupId not null
+     * @param artifactId not null
+     * @param negativeTtl the time to live of a negative result in milliseconds, a negative value means no expiry
+     * @param log not null
+     * @return the cache, with the existing entries loaded
+     */
+    static ReleaseExistenceCache open(File directory, String groupId, String artifactId, long negativeTtl, Log log) {
+        File file = new File(new File(directory, groupId), artifactId + ".properties");
+        ReleaseExistenceCache cache = new ReleaseExistenceCache(file, groupId + ":" + artifactId, negativeTtl, log);
+
+        if (file.isFile()) {
+            try {
+                cache.entries.putAll(cache.read());
+            } catch (IOException e) {
+                log.warn("Unable to read the release cache " + file + ": " + e.getMessage());
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * @param repositoryUrl not null
+     * @param version not null
+     * @param packaging not null
+     * @return {@link Boolean#TRUE} or {@link Boolean#FALSE} if the existence of the artifact in the repository is
+     *         known and not expired, <code>null</code> otherwise
+     */
+    Boolean lookup(String repositoryUrl, String version, String packaging) {
+        String key = key(repositoryUrl, version, packaging);
+        String value = recorded.get(key);
+        if (value == null) {
+            value = entries.get(key);
+        }
+
+        Boolean exists = null;
+        if (value != null && !value.isEmpty()) {
+            if (value.charAt(0) == FOUND) {
+                exists = Boolean.TRUE;
+            } else if (value.charAt(0) == NOT_FOUND && !isExpired(value)) {
+                exists = Boolean.FALSE;
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Release cache " + (exists == null ? "miss" : "hit (" + exists + ")") + " for " + key);
+        }
+
+        return exists;
+    }
+
+    /**
+     * @param repositoryUrl not null
+     * @param version not null
+     * @param packaging not null
+     * @return the published checksum of an artifact found in the repository, or <code>null</code> if unknown
+     */
+    String lookupChecksum(String repositoryUrl, String version, String packaging) {
+        String key = key(repositoryUrl, version, packaging);
+        String value = recorded.get(key);
+        if (value == null) {
+            value = entries.get(key);
+        }
+
+        if (value == null || value.isEmpty() || value.charAt(0) != FOUND) {
+            return null;
+        }
+
+        int index = value.indexOf(' ');
+        return index < 0 ? null : value.substring(index + 1);
+    }
+
+    /**
+     * Record the existence of an artifact in a repository.
+     *
+     * @param repositoryUrl not null
+     * @param version not null
+     * @param packaging not null
+     * @param exists <code>true</code> if the artifact was found in the repository
+     */
+    void record(String repositoryUrl, String version, String packaging, boolean exists) {
+        record(repositoryUrl, version, packaging, exists, null);
+    }
+
+    /**
+     * Record the existence of an artifact in a repository, with its published checksum.
+     *
+     * @param repositoryUrl not null
+     * @param version not null
+     * @param packaging not null
+     * @param exists <code>true</code> if the artifact was found in the repository
+     * @param checksum the published checksum of a found artifact, could be null
+     */
+    void record(String repositoryUrl, String version, String packaging, boolean exists, String checksum) {
+        recorded.put(
+                key(repositoryUrl, version, packaging),
+                String.valueOf(exists ? FOUND : NOT_FOUND)
+                        + now()
+                        + (exists && checksum != null ? " " + checksum : ""));
+    }
+
+    /**
+     * Merge the recorded entries into the cache file. Failures are logged and otherwise ignored, the cache is only an
+     * optimization.
+     */
+    void store() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        try {
+            write();
+        } catch (IOException e) {
+            log.warn("Unable to write the release cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(String value) {
+        if (negativeTtl < 0) {
+            return false;
+        }
+
+        try {
+            int index = value.indexOf(' ');
+            return now() - Long.parseLong(value.substring(1, index < 0 ? value.length() : index)) > negativeTtl;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private String key(String repositoryUrl, String version, String packaging) {
+        return repositoryUrl + " " + gav + ":" + version + ":" + packaging;
+    }
+
+    private Map<String, String> read() throws IOException {
+        Path lockFile = lockFile();
+        synchronized (JVM_LOCKS.computeIfAbsent(lockFile, k -> new Object())) {
+            try (FileChannel channel = openLock(lockFile);
+                    FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+                return load();
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        Path lockFile = lockFile();
+        synchronized (JVM_LOCKS.computeIfAbsent(lockFile, k -> new Object())) {
+            try (FileChannel channel = openLock(lockFile);
+                    FileLock lock = channel.lock()) {
+                // merge with the entries written by other builds since the cache was opened
+                Map<String, String> merged = load();
+                merged.putAll(recorded);
+
+                Properties properties = new Properties();
+                properties.putAll(merged);
+
+                Path target = file.toPath();
+                Path tmp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(tmp)) {
+                        properties.store(out, "Maven DOAP Plugin release existence cache of " + gav);
+                    }
+                    try {
+                        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            }
+        }
+    }
+
+    private Map<String, String> load() throws IOException {
+        Map<String, String> loaded = new ConcurrentHashMap<>();
+        if (!file.isFile()) {
+            return loaded;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            loaded.put(key, properties.getProperty(key));
+        }
+
+        return loaded;
+    }
+
+    private Path lockFile() {
+        return new File(file.getParentFile(), file.getName() + ".lock")
+                .toPath()
+                .toAbsolutePath()
+                .normalize();
+    }
+
+    private static FileChannel openLock(Path lockFile) throws IOException {
+        Files.createDirectories(lockFile.getParent());
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+
+/**
+ * Restricts the releases listed in the DOAP file to a window of versions. The filter only looks at the version
+ * strings, so it is applied before any release file is probed.
+ *
+ * @since 3.0.0
+ */
+class ReleaseFilter {
+    /** Qualifiers of a pre-release version. */
+    private static final Set<String> PRE_RELEASE_QUALIFIERS = new HashSet<>(
+            Arrays.asList("alpha", "beta", "milestone", "rc", "cr", "snapshot", "preview", "pre", "ea", "dev"));
+
+    /** Short qualifiers of a pre-release version, only when directly followed by a number, i.e. 1.0-b2. */
+    private static final Set<String> SHORT_PRE_RELEASE_QUALIFIERS = new HashSet<>(Arrays.asList("a", "b", "m"));
+
+    private static final Pattern QUALIFIER_PATTERN = Pattern.compile("[a-zA-Z]+");
+
+    private final int maxReleases;
+
+    private final ComparableVersion since;
+
+    private final VersionRange range;
+
+    private final boolean excludePreReleases;
+
+    /**
+     * @param maxReleases the maximum number of releases to keep, the most recent ones, or <code>0</code> to keep all
+     * @param since the oldest version to keep, could be null
+     * @param rangeSpec a version range the releases should be in, i.e. <code>[2.0,)</code>, could be null
+     * @param excludePreReleases <code>true</code> to exclude the alpha, beta, milestone and release candidate versions
+     * @throws IllegalArgumentException if the version range is not valid
+     */
+    ReleaseFilter(int maxReleases, String since, String rangeSpec, boolean excludePreReleases) {
+        this.maxReleases = maxReleases;
+        this.since = (since == null || since.trim().isEmpty()) ? null : new ComparableVersion(since.trim());
+        if (rangeSpec == null || rangeSpec.trim().isEmpty()) {
+            this.range = null;
+        } else {
+            try {
+                this.range = VersionRange.createFromVersionSpec(rangeSpec.trim());
+            } catch (InvalidVersionSpecificationException e) {
+                throw new IllegalArgumentException(
+                        "Invalid release version range '" + rangeSpec + "': " + e.getMessage(), e);
+            }
+        }
+        this.excludePreReleases = excludePreReleases;
+    }
+
+    /**
+     * @return <code>true</code> if this filter keeps every version
+     */
+    boolean isEmpty() {
+        return maxReleases <= 0 && since == null && range == null && !excludePreReleases;
+    }
+
+    /**
+     * @param versions not null
+     * @return the versions kept by this filter, in the same order
+     */
+    List<String> filter(List<String> versions) {
+        if (isEmpty()) {
+            return versions;
+        }
+
+        List<String> kept = new ArrayList<>(versions.size());
+        for (String version : versions) {
+            if (accept(version)) {
+                kept.add(version);
+            }
+        }
+
+        if (maxReleases > 0 && kept.size() > maxReleases) {
+            List<String> recent = new ArrayList<>(kept);
+            Collections.sort(recent, new Comparator<String>() {
+                @Override
+                public int compare(String version1, String version2) {
+                    return new ComparableVersion(version2).compareTo(new ComparableVersion(version1));
+                }
+            });
+            kept.retainAll(new HashSet<>(recent.subList(0, maxReleases)));
+        }
+
+        return kept;
+    }
+
+    private boolean accept(String version) {
+        if (excludePreReleases && isPreRelease(version)) {
+            return false;
+        }
+        if (since != null && new ComparableVersion(version).compareTo(since) < 0) {
+            return false;
+        }
+        if (range != null && !range.containsVersion(new DefaultArtifactVersion(version))) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @param version not null
+     * @return <code>true</code> if the version has a pre-release qualifier, i.e. <code>1.0-alpha-1</code>,
+     *         <code>2.0-M3</code> or <code>3.1.0-RC2</code>
+     */
+    static boolean isPreRelease(String version) {
+        Matcher matcher = QUALIFIER_PATTERN.matcher(version);
+        while (matcher.find()) {
+            String qualifier = matcher.group().toLowerCase(Locale.ENGLISH);
+            if (PRE_RELEASE_QUALIFIERS.contains(qualifier)) {
+                return true;
+            }
+            if (SHORT_PRE_RELEASE_QUALIFIERS.contains(qualifier)
+                    && matcher.end() < version.length()
+                    && Character.isDigit(version.charAt(matcher.end()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
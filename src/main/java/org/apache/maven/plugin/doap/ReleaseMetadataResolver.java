@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+
+/**
+ * Resolves the <code>maven-metadata.xml</code> of an artifact from all the release repositories and merges their
+ * versions. The metadata of all the repositories are requested from the {@link RepositorySystem} as one batch, so
+ * Resolver fetches them concurrently, honors the update policy of each repository, i.e. the local copy of the
+ * metadata is used while it is fresh, and does not check the same metadata twice in a session. With a
+ * {@link MetadataRevalidator}, the metadata of the HTTP repositories it supports is revalidated instead, concurrently
+ * with the batch. Both are bounded by the time budget of the {@link ReleaseDiscoveryGuard}, and the repositories it
+ * skipped are not queried.
+ *
+ * @since 3.0.0
+ */
+class ReleaseMetadataResolver {
+    private final RepositorySystem repositorySystem;
+
+    private final RepositorySystemSession repositorySystemSession;
+
+    private final DoapSessionCache sessionCache;
+
+    private final Log log;
+
+    private final ReleaseDiscoveryGuard guard;
+
+    private MetadataRevalidator revalidator;
+
+    private boolean unchanged;
+
+    /**
+     * @param repositorySystem not null
+     * @param repositorySystemSession not null
+     * @param sessionCache the results shared by the session, not null
+     * @param log not null
+     * @param guard the health of the repositories and time budget of the discovery, not null
+     */
+    ReleaseMetadataResolver(
+            RepositorySystem repositorySystem,
+            RepositorySystemSession repositorySystemSession,
+            DoapSessionCache sessionCache,
+            Log log,
+            ReleaseDiscoveryGuard guard) {
+        this.repositorySystem = repositorySystem;
+        this.repositorySystemSession = repositorySystemSession;
+        this.sessionCache = sessionCache;
+        this.log = log;
+        this.guard = guard;
+    }
+
+    /**
+     * @param revalidator the conditional fetch of the metadata of the HTTP repositories, could be null
+     */
+    void setRevalidator(MetadataRevalidator revalidator) {
+        this.revalidator = revalidator;
+    }
+
+    /**
+     * @return <code>true</code> if all the repositories answered that the metadata of the last resolved artifact is
+     *         unchanged since the previous build
+     */
+    boolean isUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @param repository not null
+     * @return <code>true</code> if the repository is a release repository whose metadata should be resolved
+     */
+    static boolean isReleaseRepository(ArtifactRepository repository) {
+        return !repository.isBlacklisted()
+                && !repository.getSnapshots().isEnabled()
+                && repository.getReleases().isEnabled();
+    }
+
+    /**
+     * Resolve and merge the versioning of the given artifact from all the release repositories.
+     *
+     * @param groupId not null
+     * @param artifactId not null
+     * @param repositories not null
+     * @return the merged versioning, with the versions in ascending order and the most recent last updated
+     *         timestamp, or <code>null</code> if no repository has a versioning for the artifact
+     * @throws MojoExecutionException if the metadata could not be retrieved from any repository
+     */
+    Versioning resolve(String groupId, String artifactId, List<ArtifactRepository> repositories)
+            throws MojoExecutionException {
+        List<ArtifactRepository> releaseRepositories = new ArrayList<>();
+        for (ArtifactRepository repo : repositories) {
+            if (isReleaseRepository(repo) && guard.isAvailable(repo)) {
+                releaseRepositories.add(repo);
+            }
+        }
+
+        unchanged = false;
+        if (releaseRepositories.isEmpty()) {
+            return null;
+        }
+
+        Metadata metadata = new DefaultMetadata(groupId, artifactId, "maven-metadata.xml", Metadata.Nature.RELEASE);
+        final List<MetadataRequest> requests = new ArrayList<>(releaseRepositories.size());
+        List<ArtifactRepository> requestedRepositories = new ArrayList<>(releaseRepositories.size());
+        List<RemoteRepository> revalidated = new ArrayList<>();
+        List<ArtifactRepository> revalidatedRepositories = new ArrayList<>();
+        for (ArtifactRepository repo : releaseRepositories) {
+            // set up authentication, proxy and mirror, one by one to keep a request per repository
+            RemoteRepository remoteRepository = sessionCache.getRemoteRepository(repositorySystemSession, repo);
+            if (revalidator != null && MetadataRevalidator.supports(remoteRepository, repositorySystemSession)) {
+                revalidated.add(remoteRepository);
+                revalidatedRepositories.add(repo);
+            } else {
+                requests.add(new MetadataRequest(metadata, remoteRepository, null));
+                requestedRepositories.add(repo);
+            }
+        }
+
+        List<Versioning> versionings = new ArrayList<>();
+        MojoExecutionException failure = null;
+        int unchangedRepositories = 0;
+
+        // the Resolver batch and the conditional fetches run concurrently, within the time budget of the discovery
+        List<MetadataResult> results;
+        ExecutorService executor = Executors.newFixedThreadPool(revalidated.size() + (requests.isEmpty() ? 0 : 1));
+        try {
+            Future<List<MetadataResult>> batch = requests.isEmpty()
+                    ? null
+                    : executor.submit(() -> repositorySystem.resolveMetadata(repositorySystemSession, requests));
+            List<Future<MetadataRevalidator.Result>> fetches = new ArrayList<>(revalidated.size());
+            for (RemoteRepository remoteRepository : revalidated) {
+                fetches.add(executor.submit(
+                        () -> revalidator.fetch(remoteRepository, groupId, artifactId, guard.remainingMillis())));
+            }
+
+            for (int i = 0; i < fetches.size(); i++) {
+                ArtifactRepository repo = revalidatedRepositories.get(i);
+                try {
+                    MetadataRevalidator.Result result = await(fetches.get(i));
+                    guard.recordSuccess(repo);
+                    if (result.isUnchanged()) {
+                        unchangedRepositories++;
+                    }
+                    Versioning versioning = read(result.getFile());
+                    if (versioning != null) {
+                        versionings.add(versioning);
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    String message = groupId + ":" + artifactId + " metadata could not be retrieved from repository "
+                            + repo.getId() + " due to an error: " + cause.getMessage();
+                    if (failure == null) {
+                        failure = new MojoExecutionException(message, cause);
+                    }
+                    guard.recordFailure(repo, cause.getMessage());
+                    log.warn(message);
+                }
+            }
+
+            try {
+                results = batch != null ? await(batch) : Collections.<MetadataResult>emptyList();
+            } catch (ExecutionException e) {
+                throw new MojoExecutionException(
+                        "Error when resolving the repository metadata: " + e.getCause().getMessage(), e.getCause());
+            }
+        } catch (TimeoutException e) {
+            guard.timeout();
+            log.warn(groupId + ":" + artifactId + " metadata could not be retrieved within the release discovery "
+                    + "timeout");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while resolving the repository metadata", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        unchanged = unchangedRepositories == releaseRepositories.size();
+
+        for (int i = 0; i < results.size(); i++) {
+            ArtifactRepository repo = requestedRepositories.get(i);
+            MetadataResult result = results.get(i);
+            Exception exception = result.getException();
+            if (exception != null && !(exception instanceof MetadataNotFoundException)) {
+                String message = groupId + ":" + artifactId + " metadata could not be retrieved from repository "
+                        + repo.getId() + " due to an error: " + exception.getMessage();
+                if (failure == null) {
+                    failure = new MojoExecutionException(message, exception);
+                }
+                guard.recordFailure(repo, exception.getMessage());
+                log.warn(message);
+                continue;
+            }
+
+            guard.recordSuccess(repo);
+            if (result.isResolved()) {
+                Versioning versioning = read(result.getMetadata().getFile());
+                if (versioning != null) {
+                    versionings.add(versioning);
+                }
+            }
+        }
+
+        if (versionings.isEmpty() && failure != null) {
+            throw failure;
+        }
+
+        return merge(versionings);
+    }
+
+    /**
+     * @param future not null
+     * @return the result of the future, waited for within the time budget of the discovery
+     * @throws TimeoutException if the time budget is exhausted
+     */
+    private <T> T await(Future<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        long remaining = guard.remainingMillis();
+        return remaining == Long.MAX_VALUE ? future.get() : future.get(remaining, TimeUnit.MILLISECONDS);
+    }
+
+    private Versioning read(File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return new MetadataXpp3Reader().read(in, false).getVersioning();
+        } catch (IOException | XmlPullParserException e) {
+            log.debug("Unable to read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param versionings not null
+     * @return the merged versioning or <code>null</code> if the list is empty
+     */
+    static Versioning merge(List<Versioning> versionings) {
+        if (versionings.isEmpty()) {
+            return null;
+        }
+
+        Set<String> versions = new LinkedHashSet<>();
+        String lastUpdated = null;
+        for (Versioning versioning : versionings) {
+            versions.addAll(versioning.getVersions());
+            String updated = versioning.getLastUpdated();
+            if (updated != null && (lastUpdated == null || updated.compareTo(lastUpdated) > 0)) {
+                lastUpdated = updated;
+            }
+        }
+
+        List<String> sorted = new ArrayList<>(versions);
+        Collections.sort(sorted, new Comparator<String>() {
+            @Override
+            public int compare(String version1, String version2) {
+                return new ComparableVersion(version1).compareTo(new ComparableVersion(version2));
+            }
+        });
+
+        Versioning merged = new Versioning();
+        merged.setVersions(sorted);
+        merged.setLastUpdated(lastUpdated);
+        return merged;
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.transfer.NoRepositoryConnectorException;
+
+/**
+ * Probes the remote repositories for the release files of a project. Each repository is probed through one
+ * {@link RepositoryProbeSession} receiving the existence checks of all the versions as a single batch, so the
+ * connector can run them over its own pooled connections. The repositories are probed concurrently over a bounded
+ * pool of worker threads, the results are collected in the order of the given versions and repositories. A
+ * {@link ReleaseDiscoveryGuard} skips the failing repositories and bounds the time spent waiting for the results.
+ *
+ * @since 3.0.0
+ */
+class ReleaseProber {
+    /** The cached checksum of a release without published checksum, so it is not probed again. */
+    private static final String NO_CHECKSUM = "none";
+
+    private final ArtifactFactory artifactFactory;
+
+    private final RepositoryConnectorProvider connectorProvider;
+
+    private final RepositorySystemSession repositorySystemSession;
+
+    private final DoapSessionCache sessionCache;
+
+    private final Log log;
+
+    private final int parallelism;
+
+    private final ReleaseDiscoveryGuard guard;
+
+    private ReleaseExistenceCache existenceCache;
+
+    private boolean fetchChecksums;
+
+    /** The published checksums of the found releases, by version. */
+    private final Map<String, String> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * @param artifactFactory not null
+     * @param connectorProvider not null
+     * @param repositorySystemSession not null
+     * @param sessionCache the results shared by the session, not null
+     * @param log not null
+     * @param parallelism the maximum number of repositories probed concurrently, at least 1
+     * @param guard the health of the repositories and time budget of the discovery, not null
+     */
+    ReleaseProber(
+            ArtifactFactory artifactFactory,
+            RepositoryConnectorProvider connectorProvider,
+            RepositorySystemSession repositorySystemSession,
+            DoapSessionCache sessionCache,
+            Log log,
+            int parallelism,
+            ReleaseDiscoveryGuard guard) {
+        this.artifactFactory = artifactFactory;
+        this.connectorProvider = connectorProvider;
+        this.repositorySystemSession = repositorySystemSession;
+        this.sessionCache = sessionCache;
+        this.log = log;
+        this.parallelism = Math.max(1, parallelism);
+        this.guard = guard;
+    }
+
+    /**
+     * @param existenceCache the cache of the existence checks of the probed artifact, could be null
+     */
+    void setExistenceCache(ReleaseExistenceCache existenceCache) {
+        this.existenceCache = existenceCache;
+    }
+
+    /**
+     * @param fetchChecksums <code>true</code> to download the published checksums of the found releases with the
+     *            existence checks
+     */
+    void setFetchChecksums(boolean fetchChecksums) {
+        this.fetchChecksums = fetchChecksums;
+    }
+
+    /**
+     * @return the published checksums of the releases found by the last probe, by version, formatted as
+     *         <code>algorithm:value</code>. Empty unless the checksums are fetched
+     */
+    Map<String, String> getChecksums() {
+        return checksums;
+    }
+
+    /**
+     * Find the file releases of the given versions in the given repositories.
+     *
+     * @param groupId not null
+     * @param artifactId not null
+     * @param packaging not null
+     * @param versions not null
+     * @param repositories not null
+     * @return a map with the given versions as keys, in the same order, and the URLs of the file releases found as
+     *         values, in the order of the given repositories. If the time budget is exhausted, only the file releases
+     *         confirmed so far are listed
+     * @throws MojoExecutionException if the probing was interrupted or failed unexpectedly
+     */
+    Map<String, List<String>> probe(
+            String groupId,
+            String artifactId,
+            final String packaging,
+            List<String> versions,
+            List<ArtifactRepository> repositories)
+            throws MojoExecutionException {
+        final Map<String, Artifact> releases = new LinkedHashMap<>();
+        for (String version : versions) {
+            Artifact artifactRelease = artifactFactory.createArtifact(groupId, artifactId, version, null, packaging);
+            if (artifactRelease != null) {
+                releases.put(version, artifactRelease);
+            }
+        }
+
+        Map<String, List<String>> fileReleases = new LinkedHashMap<>();
+        for (String version : versions) {
+            fileReleases.put(version, new ArrayList<>());
+        }
+
+        if (releases.isEmpty() || repositories.isEmpty()) {
+            return fileReleases;
+        }
+
+        checksums.clear();
+        File checksumDirectory = null;
+        if (fetchChecksums) {
+            try {
+                checksumDirectory = Files.createTempDirectory("doap-checksums").toFile();
+            } catch (IOException e) {
+                log.warn("Unable to create a temporary directory, the release checksums are skipped: "
+                        + e.getMessage());
+            }
+        }
+
+        List<Set<String>> found = new ArrayList<>(repositories.size());
+        List<Future<?>> futures = new ArrayList<>(repositories.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, repositories.size()));
+        try {
+            for (int i = 0; i < repositories.size(); i++) {
+                final ArtifactRepository repo = repositories.get(i);
+                final File repositoryChecksumDirectory =
+                        checksumDirectory != null ? new File(checksumDirectory, String.valueOf(i)) : null;
+                // filled as the results come, so the releases confirmed so far are kept on timeout
+                final Set<String> foundInRepository = ConcurrentHashMap.newKeySet();
+                found.add(foundInRepository);
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        probeRepository(repo, releases, packaging, repositoryChecksumDirectory, foundInRepository);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get(guard.remainingMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    guard.timeout();
+                    break;
+                }
+            }
+
+            for (int i = 0; i < repositories.size(); i++) {
+                ArtifactRepository repo = repositories.get(i);
+                Set<String> foundInRepository = found.get(i);
+                for (Map.Entry<String, Artifact> release : releases.entrySet()) {
+                    if (foundInRepository.contains(release.getKey())) {
+                        fileReleases
+                                .get(release.getKey())
+                                .add(repo.getUrl() + "/" + repo.pathOf(release.getValue()));
+                    }
+                }
+            }
+
+            if (existenceCache != null) {
+                existenceCache.store();
+            }
+
+            return fileReleases;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while probing the release files", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException(
+                    "Error when probing the release files: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (checksumDirectory != null) {
+                try {
+                    FileUtils.deleteDirectory(checksumDirectory);
+                } catch (IOException e) {
+                    log.debug("Unable to delete " + checksumDirectory + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the existence of all the given releases in one repository, skipping the releases already known by the
+     * existence cache. The checks are sent in batches, starting with <code>failureThreshold</code> checks and doubling
+     * the batch size while the repository answers, so an unreachable repository costs a single small batch before
+     * its circuit opens.
+     *
+     * @param repository not null
+     * @param releases not null, the release artifacts by version
+     * @param packaging not null
+     * @param checksumDirectory the directory receiving the checksum files, null to skip the checksums
+     * @param found not null, receives the versions found in the repository
+     */
+    private void probeRepository(
+            ArtifactRepository repository,
+            Map<String, Artifact> releases,
+            String packaging,
+            File checksumDirectory,
+            Set<String> found) {
+        Map<org.eclipse.aether.artifact.Artifact, String> versionsByArtifact = new LinkedHashMap<>();
+        for (Map.Entry<String, Artifact> release : releases.entrySet()) {
+            String version = release.getKey();
+            Boolean cached =
+                    existenceCache != null ? existenceCache.lookup(repository.getUrl(), version, packaging) : null;
+            if (existenceCache != null) {
+                sessionCache.record(DoapSessionCache.RELEASE_EXISTENCE, cached != null);
+            }
+            String cachedChecksum = cached != null && cached && checksumDirectory != null
+                    ? existenceCache.lookupChecksum(repository.getUrl(), version, packaging)
+                    : null;
+            if (cached == null || (cached && checksumDirectory != null && cachedChecksum == null)) {
+                versionsByArtifact.put(toAetherArtifact(release.getValue()), version);
+            } else if (cached) {
+                found.add(version);
+                if (cachedChecksum != null && !NO_CHECKSUM.equals(cachedChecksum)) {
+                    checksums.putIfAbsent(version, cachedChecksum);
+                }
+            }
+        }
+
+        if (versionsByArtifact.isEmpty() || !guard.isAvailable(repository)) {
+            return;
+        }
+
+        List<org.eclipse.aether.artifact.Artifact> pending = new ArrayList<>(versionsByArtifact.keySet());
+        int batchSize = guard.getFailureThreshold() > 0 ? guard.getFailureThreshold() : pending.size();
+        try (RepositoryProbeSession session = RepositoryProbeSession.open(
+                connectorProvider,
+                repositorySystemSession,
+                repository,
+                sessionCache.getRemoteRepository(repositorySystemSession, repository))) {
+            for (int from = 0; from < pending.size(); from += batchSize, batchSize *= 2) {
+                if (!guard.isAvailable(repository) || guard.isExpired() || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                List<org.eclipse.aether.artifact.Artifact> batch =
+                        pending.subList(from, Math.min(pending.size(), from + batchSize));
+                Map<org.eclipse.aether.artifact.Artifact, String> batchChecksums = new HashMap<>();
+                for (Map.Entry<org.eclipse.aether.artifact.Artifact, Boolean> result :
+                        session.exist(batch, checksumDirectory, batchChecksums).entrySet()) {
+                    String version = versionsByArtifact.get(result.getKey());
+                    if (result.getValue() == null) {
+                        guard.recordFailure(
+                                repository, result.getKey() + ": " + session.getLastFailure().getMessage());
+                        continue;
+                    }
+
+                    guard.recordSuccess(repository);
+                    String checksum = batchChecksums.get(result.getKey());
+                    if (result.getValue()) {
+                        found.add(version);
+                        if (checksum != null) {
+                            checksums.putIfAbsent(version, checksum);
+                        }
+                    } else {
+                        log.debug(result.getKey() + " is not in the repository " + repository);
+                    }
+                    if (existenceCache != null) {
+                        existenceCache.record(
+                                repository.getUrl(),
+                                version,
+                                packaging,
+                                result.getValue(),
+                                checksumDirectory != null && checksum == null ? NO_CHECKSUM : checksum);
+                    }
+                }
+            }
+        } catch (NoRepositoryConnectorException e) {
+            guard.trip(repository, "no connector available: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Convert Legacy Artifact to Aether Artifact, using the extension of the artifact handler so the probed file is
+     * the one referenced by the file release URL.
+     *
+     * @param artifact not null
+     * @return the Aether artifact
+     */
+    private static org.eclipse.aether.artifact.Artifact toAetherArtifact(Artifact artifact) {
+        return new DefaultArtifact(
+                artifact.getGroupId(),
+                artifact.getArtifactId(),
+                artifact.getClassifier(),
+                artifact.getArtifactHandler().getExtension(),
+                artifact.getVersion());
+    }
+}
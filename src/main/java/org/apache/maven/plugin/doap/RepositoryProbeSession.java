@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.spi.connector.ArtifactDownload;
+import org.eclipse.aether.spi.connector.RepositoryConnector;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.ArtifactTransferException;
+import org.eclipse.aether.transfer.NoRepositoryConnectorException;
+
+/**
+ * An open connection to a single remote repository, used to check the existence of artifacts without downloading
+ * them. Authentication, proxy and mirror settings are resolved once by Maven session, and all the
+ * existence checks of a call are submitted to the connector as one batch, optionally with the downloads of the
+ * strongest published checksum files.
+ *
+ * @since 3.0.0
+ */
+class RepositoryProbeSession implements AutoCloseable {
+    /** The checksum algorithms of the published checksum files, the strongest first. */
+    static final String[] CHECKSUM_ALGORITHMS = {"sha512", "sha1"};
+
+    private static final Pattern HEX_PATTERN = Pattern.compile("[0-9a-f]+");
+
+    private final ArtifactRepository repository;
+
+    private final RemoteRepository remoteRepository;
+
+    private final RepositoryConnector connector;
+
+    private ArtifactTransferException lastFailure;
+
+    private RepositoryProbeSession(
+            ArtifactRepository repository, RemoteRepository remoteRepository, RepositoryConnector connector) {
+        this.repository = repository;
+        this.remoteRepository = remoteRepository;
+        this.connector = connector;
+    }
+
+    /**
+     * Open a probe session against the given repository.
+     *
+     * @param connectorProvider not null
+     * @param repositorySystemSession not null
+     * @param repository not null
+     * @param remoteRepository the repository with its authentication, proxy and mirror set up, not null
+     * @return an open session, to be closed by the caller
+     * @throws NoRepositoryConnectorException if no connector is available for the repository
+     * @see DoapSessionCache#getRemoteRepository(RepositorySystemSession, ArtifactRepository)
+     */
+    static RepositoryProbeSession open(
+            RepositoryConnectorProvider connectorProvider,
+            RepositorySystemSession repositorySystemSession,
+            ArtifactRepository repository,
+            RemoteRepository remoteRepository)
+            throws NoRepositoryConnectorException {
+        RepositoryConnector connector =
+                connectorProvider.newRepositoryConnector(repositorySystemSession, remoteRepository);
+
+        return new RepositoryProbeSession(repository, remoteRepository, connector);
+    }
+
+    /**
+     * @return the legacy repository this session was opened against
+     */
+    ArtifactRepository getRepository() {
+        return repository;
+    }
+
+    /**
+     * @return the resolved repository this session is connected to
+     */
+    RemoteRepository getRemoteRepository() {
+        return remoteRepository;
+    }
+
+    /**
+     * @return the failure of the last existence check that could not be answered by the repository, could be null
+     */
+    ArtifactTransferException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Check if the given artifacts exist in the repository without downloading them.
+     *
+     * @param artifacts not null
+     * @return a map with the given artifacts as keys, in the same order, and <code>true</code> as value if the
+     *         artifact exists in the repository, <code>false</code> if it does not exist or <code>null</code> if the
+     *         check failed, i.e. the repository could not be reached
+     */
+    Map<Artifact, Boolean> exist(Collection<Artifact> artifacts) {
+        return exist(artifacts, null, null);
+    }
+
+    /**
+     * Check if the given artifacts exist in the repository without downloading them, and download their published
+     * checksums. The strongest checksum file is downloaded in the same batch as the existence checks, the weaker ones
+     * only for the found artifacts without a stronger checksum, in one more batch by algorithm.
+     *
+     * @param artifacts not null
+     * @param checksumDirectory the directory receiving the downloaded checksum files, null to skip the checksums
+     * @param checksums receives the published checksums of the found artifacts, formatted as
+     *            <code>algorithm:value</code>, the strongest algorithm first. Could be null
+     * @return a map with the given artifacts as keys, in the same order, and <code>true</code> as value if the
+     *         artifact exists in the repository, <code>false</code> if it does not exist or <code>null</code> if the
+     *         check failed, i.e. the repository could not be reached
+     */
+    Map<Artifact, Boolean> exist(
+            Collection<Artifact> artifacts, File checksumDirectory, Map<Artifact, String> checksums) {
+        List<ArtifactDownload> downloads = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            ArtifactDownload download = new ArtifactDownload(artifact, null, null, null);
+            download.setExistenceCheck(true);
+            downloads.add(download);
+        }
+        if (downloads.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        // the checksum files are tiny, download the strongest one with the existence checks
+        boolean fetchChecksums = checksumDirectory != null && checksums != null;
+        Map<Artifact, ArtifactDownload> checksumDownloads = fetchChecksums
+                ? checksumDownloads(artifacts, CHECKSUM_ALGORITHMS[0], checksumDirectory)
+                : Collections.<Artifact, ArtifactDownload>emptyMap();
+        List<ArtifactDownload> batch = new ArrayList<>(downloads);
+        batch.addAll(checksumDownloads.values());
+        connector.get(batch, null);
+
+        Map<Artifact, Boolean> result = new LinkedHashMap<>();
+        List<Artifact> missingChecksums = new ArrayList<>();
+        for (ArtifactDownload download : downloads) {
+            ArtifactTransferException exception = download.getException();
+            if (exception == null) {
+                result.put(download.getArtifact(), Boolean.TRUE);
+                if (fetchChecksums) {
+                    missingChecksums.add(download.getArtifact());
+                }
+            } else if (exception instanceof ArtifactNotFoundException) {
+                result.put(download.getArtifact(), Boolean.FALSE);
+            } else {
+                result.put(download.getArtifact(), null);
+                lastFailure = exception;
+            }
+        }
+
+        // the weaker checksums are only a fallback for the found artifacts
+        for (int i = 0; i < CHECKSUM_ALGORITHMS.length && !missingChecksums.isEmpty(); i++) {
+            if (i > 0) {
+                checksumDownloads = checksumDownloads(missingChecksums, CHECKSUM_ALGORITHMS[i], checksumDirectory);
+                connector.get(checksumDownloads.values(), null);
+            }
+            for (Iterator<Artifact> it = missingChecksums.iterator(); it.hasNext(); ) {
+                Artifact artifact = it.next();
+                String checksum = readChecksum(checksumDownloads.get(artifact));
+                if (checksum != null) {
+                    checksums.put(artifact, CHECKSUM_ALGORITHMS[i] + ":" + checksum);
+                    it.remove();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param artifacts not null
+     * @param algorithm the algorithm of the checksum files, not null
+     * @param checksumDirectory the directory receiving the checksum files, not null
+     * @return the downloads of the checksum files by artifact, in the same order
+     */
+    private static Map<Artifact, ArtifactDownload> checksumDownloads(
+            Collection<Artifact> artifacts, String algorithm, File checksumDirectory) {
+        Map<Artifact, ArtifactDownload> downloads = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            Artifact checksum = new DefaultArtifact(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    artifact.getClassifier(),
+                    artifact.getExtension() + "." + algorithm,
+                    artifact.getVersion());
+            File file = new File(
+                    checksumDirectory,
+                    artifact.getArtifactId() + "-" + artifact.getVersion()
+                            + (artifact.getClassifier().isEmpty() ? "" : "-" + artifact.getClassifier())
+                            + "." + checksum.getExtension());
+            downloads.put(
+                    artifact, new ArtifactDownload(checksum, null, file, RepositoryPolicy.CHECKSUM_POLICY_IGNORE));
+        }
+        return downloads;
+    }
+
+    /**
+     * @param download the download of a checksum file, not null
+     * @return the published checksum value, or null if the file is missing or invalid
+     */
+    private static String readChecksum(ArtifactDownload download) {
+        if (download.getException() != null || !download.getFile().isFile()) {
+            return null;
+        }
+
+        try {
+            String content = new String(Files.readAllBytes(download.getFile().toPath()), StandardCharsets.UTF_8)
+                    .trim();
+            // the value may be followed by the file name
+            String value = content.split("\\s+")[0].toLowerCase(Locale.ENGLISH);
+            if (HEX_PATTERN.matcher(value).matches()) {
+                return value;
+            }
+        } catch (IOException e) {
+            // ignore an unreadable checksum, it is optional
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() {
+        connector.close();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.apache.maven.scm.repository.ScmRepositoryException;
+
+/**
+ * The SCM repositories parsed during a Maven session, by SCM URL, so that the modules of a reactor sharing the SCM
+ * URLs of their parent parse them once. An URL which could not be parsed is remembered too.
+ * <p>
+ * The cache is held by the {@link DoapSessionCache}, which lives as long as the Maven session.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+class ScmRepositoryCache {
+    /** The parsed repository, null if the URL could not be parsed. */
+    private static class Entry {
+        private final ScmRepository repository;
+
+        Entry(ScmRepository repository) {
+            this.repository = repository;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * @param scmUrl an SCM URL, not null
+     * @return <code>true</code> if the URL was already parsed
+     */
+    boolean contains(String scmUrl) {
+        return repositories.containsKey(scmUrl);
+    }
+
+    /**
+     * @param scmManager not null
+     * @param scmUrl an SCM URL, not null
+     * @param log not null
+     * @return a valid SCM repository or null
+     */
+    ScmRepository getScmRepository(ScmManager scmManager, String scmUrl, Log log) {
+        return repositories.computeIfAbsent(scmUrl, url -> parse(scmManager, url, log)).repository;
+    }
+
+    private static Entry parse(ScmManager scmManager, String scmUrl, Log log) {
+        try {
+            return new Entry(scmManager.makeScmRepository(scmUrl));
+        } catch (NoSuchScmProviderException | ScmRepositoryException e) {
+            if (log.isDebugEnabled()) {
+                log.debug(e.getMessage(), e);
+            }
+            return new Entry(null);
+        }
+    }
+}
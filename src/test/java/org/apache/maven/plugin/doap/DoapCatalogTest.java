@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link DoapCatalog} class.
+ */
+class DoapCatalogTest {
+    @TempDir
+    File directory;
+
+    /**
+     * Verify that the organizations of several DOAP files are merged by name and homepage, and that an invalid file
+     * is ignored.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testCatalog() throws Exception {
+        DoapCatalog catalog = new DoapCatalog(new SystemStreamLog());
+        assertTrue(catalog.add(writeDoap("a", "Example", "http://www.example.org")));
+        assertTrue(catalog.add(writeDoap("b", "Example", "http://www.example.org")));
+        assertTrue(catalog.add(writeDoap("c", "Other", "http://other.example.org")));
+
+        File invalid = new File(directory, "invalid.rdf");
+        Files.write(invalid.toPath(), "<rdf:RDF".getBytes(StandardCharsets.UTF_8));
+        assertFalse(catalog.add(invalid));
+        assertFalse(catalog.add(new File(directory, "missing.rdf")));
+
+        assertEquals(3, catalog.size());
+        assertEquals(2, catalog.mergeOrganizations());
+
+        File catalogFile = new File(directory, "catalog.rdf");
+        assertTrue(catalog.write(catalogFile));
+        assertFalse(catalog.write(catalogFile));
+
+        String content = new String(Files.readAllBytes(catalogFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(content.contains("http://www.example.org/a"));
+        assertTrue(content.contains("http://www.example.org/b"));
+        assertTrue(content.contains("http://www.example.org/c"));
+        assertEquals(2, content.split("<foaf:Organization").length - 1);
+        assertEquals(3, content.split("<foaf:member").length - 1);
+    }
+
+    private File writeDoap(String name, String organization, String organizationUrl) throws Exception {
+        String content = "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\""
+                + " xmlns=\"http://usefulinc.com/ns/doap#\" xmlns:foaf=\"http://xmlns.com/foaf/0.1/\">\n"
+                + "  <Project rdf:about=\"http://www.example.org/" + name + "\">\n"
+                + "    <name>" + name + "</name>\n"
+                + "    <maintainer><foaf:Person rdf:nodeID=\"b1\"><foaf:name>Jane Doe</foaf:name></foaf:Person>"
+                + "</maintainer>\n"
+                + "  </Project>\n"
+                + "  <foaf:Organization>\n"
+                + "    <foaf:name>" + organization + "</foaf:name>\n"
+                + "    <foaf:homepage rdf:resource=\"" + organizationUrl + "\"/>\n"
+                + "    <foaf:member rdf:nodeID=\"b1\"/>\n"
+                + "  </foaf:Organization>\n"
+                + "</rdf:RDF>\n";
+        File file = new File(directory, "doap_" + name + ".rdf");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.StringWriter;
+
+import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
+import org.codehaus.plexus.util.xml.XMLWriter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test {@link DoapDocument} class.
+ */
+class DoapDocumentTest {
+    /**
+     * Verify that a document renders the same XML as the calls it was built from.
+     */
+    @Test
+    void testRender() {
+        StringWriter expected = new StringWriter();
+        writeProject(new PrettyPrintXMLWriter(expected, "UTF-8", null), "maven-doap-plugin");
+
+        DoapDocument.Builder builder = new DoapDocument.Builder("UTF-8");
+        writeProject(builder, "maven-doap-plugin");
+        DoapDocument document = builder.build();
+
+        StringWriter actual = new StringWriter();
+        document.render(actual);
+        assertEquals(expected.toString(), actual.toString());
+
+        // rendered again without collecting again
+        StringWriter again = new StringWriter();
+        document.render(again);
+        assertEquals(expected.toString(), again.toString());
+    }
+
+    /**
+     * Verify that the documents with the same content are equal.
+     */
+    @Test
+    void testEquals() {
+        DoapDocument.Builder builder = new DoapDocument.Builder("UTF-8");
+        writeProject(builder, "maven-doap-plugin");
+        DoapDocument document = builder.build();
+
+        builder = new DoapDocument.Builder("UTF-8");
+        writeProject(builder, "maven-doap-plugin");
+        assertEquals(document, builder.build());
+        assertEquals(document.hashCode(), builder.build().hashCode());
+
+        builder = new DoapDocument.Builder("UTF-8");
+        writeProject(builder, "maven-site-plugin");
+        assertNotEquals(document, builder.build());
+    }
+
+    /**
+     * Verify that a section built separately is added to the current element.
+     */
+    @Test
+    void testAppend() {
+        DoapDocument.Builder fragment = new DoapDocument.Builder(null);
+        DoapUtil.writeElement(fragment, null, "name", "maven-doap-plugin");
+
+        DoapDocument.Builder builder = new DoapDocument.Builder("UTF-8");
+        builder.startElement("Project");
+        builder.append(fragment.build());
+        builder.endElement();
+        DoapDocument document = builder.build();
+
+        DoapDocument.Element project = (DoapDocument.Element) document.getNodes().get(0);
+        DoapDocument.Element name = (DoapDocument.Element) project.getChildren().get(0);
+        assertEquals("name", name.getName());
+        assertEquals("maven-doap-plugin", ((DoapDocument.Text) name.getChildren().get(0)).getText());
+    }
+
+    /**
+     * Verify that a section reserved and filled later is at its place in the document.
+     */
+    @Test
+    void testReserve() {
+        DoapDocument.Builder builder = new DoapDocument.Builder("UTF-8");
+        builder.startElement("Project");
+        DoapUtil.writeElement(builder, null, "name", "maven-doap-plugin");
+        DoapDocument.Slot slot = builder.reserve();
+        DoapUtil.writeElement(builder, null, "wiki", "http://www.example.org/wiki");
+        builder.endElement();
+        assertThrows(IllegalStateException.class, builder::build);
+
+        DoapDocument.Builder release = new DoapDocument.Builder(null);
+        DoapUtil.writeElement(release, null, "release", "1.0");
+        slot.fill(release.build());
+        assertThrows(IllegalStateException.class, () -> slot.fill(release.build()));
+
+        DoapDocument.Builder expected = new DoapDocument.Builder("UTF-8");
+        expected.startElement("Project");
+        DoapUtil.writeElement(expected, null, "name", "maven-doap-plugin");
+        DoapUtil.writeElement(expected, null, "release", "1.0");
+        DoapUtil.writeElement(expected, null, "wiki", "http://www.example.org/wiki");
+        expected.endElement();
+        assertEquals(expected.build(), builder.build());
+    }
+
+    /**
+     * Verify that the builder rejects the calls which would render an invalid XML.
+     */
+    @Test
+    void testInvalidCalls() {
+        DoapDocument.Builder builder = new DoapDocument.Builder("UTF-8");
+        assertThrows(IllegalStateException.class, builder::endElement);
+
+        builder.startElement("Project");
+        builder.writeText("text");
+        assertThrows(IllegalStateException.class, () -> builder.addAttribute("rdf:about", "http://www.example.org"));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private static void writeProject(XMLWriter writer, String name) {
+        DoapUtil.writeComment(writer, "A project");
+        writer.startElement("Project");
+        writer.addAttribute("rdf:about", "http://www.example.org/" + name);
+        writer.addAttribute("xml:lang", "en");
+        DoapUtil.writeElement(writer, null, "name", name);
+        DoapUtil.writeRdfResourceElement(writer, null, "homepage", "http://www.example.org/" + name + "?a=1&b=2");
+        writer.endElement();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.UnaryOperator;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test {@link DoapInterpolator} class.
+ */
+class DoapInterpolatorTest {
+    private static final String[] VALUES = {
+        "${project.name}", "${project.url}/download.html", "${project.description}", "${settings.localRepository}",
+        "${unknown}", "http://wiki.example.org", "${project.url}/screenshots.html", "${project.name} DOAP"
+    };
+
+    /**
+     * Verify that the memoized values are the ones of {@link DoapUtil#interpolate(String, MavenProject, Settings)}.
+     */
+    @Test
+    void testInterpolate() {
+        MavenProject project = newProject();
+        Settings settings = new Settings();
+        settings.setLocalRepository("/tmp/repository");
+
+        DoapInterpolator interpolator = new DoapInterpolator(project, settings);
+        for (int i = 0; i < 2; i++) {
+            for (String value : VALUES) {
+                assertEquals(DoapUtil.interpolate(value, project, settings), interpolator.interpolate(value));
+            }
+        }
+
+        assertEquals("Example", interpolator.interpolate(" ${project.name} "));
+        assertEquals("/tmp/repository", interpolator.interpolate("${settings.localRepository}"));
+        assertNull(interpolator.interpolate("${unknown}"));
+        assertNull(interpolator.interpolate(null));
+    }
+
+    /**
+     * Compare the allocations per call of an interpolator reused for a DOAP file with one built for each value, as
+     * done by {@link DoapUtil#interpolate(String, MavenProject, Settings)}. Only run with the
+     * <code>benchmark</code> profile.
+     */
+    @Test
+    @Tag("benchmark")
+    void testBenchmark() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        MavenProject project = newProject();
+        Settings settings = new Settings();
+        DoapInterpolator interpolator = new DoapInterpolator(project, settings);
+
+        int calls = 2000;
+        long[] perCall = measure(threadBean, calls, value -> DoapUtil.interpolate(value, project, settings));
+        long[] reused = measure(threadBean, calls, interpolator::interpolate);
+
+        assertTrue(
+                reused[1] < perCall[1],
+                "the reused interpolator should allocate less: " + reused[1] + " bytes/call, "
+                        + reused[0] + " ns/call, instead of " + perCall[1] + " bytes/call, " + perCall[0]
+                        + " ns/call");
+    }
+
+    private static long[] measure(com.sun.management.ThreadMXBean threadBean, int calls, UnaryOperator<String> op) {
+        // warm up
+        for (int i = 0; i < calls; i++) {
+            op.apply(VALUES[i % VALUES.length]);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytes = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            op.apply(VALUES[i % VALUES.length]);
+        }
+        long time = System.nanoTime() - start;
+        bytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+
+        return new long[] {time / calls, bytes / calls};
+    }
+
+    private static MavenProject newProject() {
+        Model model = new Model();
+        model.setGroupId("org.example");
+        model.setArtifactId("example");
+        model.setVersion("1.0");
+        model.setName("Example");
+        model.setUrl("http://www.example.org");
+        model.setDescription("An example project");
+        return new MavenProject(model);
+    }
+}
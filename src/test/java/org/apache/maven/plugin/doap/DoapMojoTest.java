@@ -23,19 +23,37 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
 import org.apache.maven.api.plugin.testing.Basedir;
 import org.apache.maven.api.plugin.testing.InjectMojo;
 import org.apache.maven.api.plugin.testing.MojoParameter;
 import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.doap.options.DoapArtifact;
 import org.apache.maven.plugin.doap.options.DoapOptions;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.StringUtils;
+import org.eclipse.aether.RepositorySystem;
 import org.junit.jupiter.api.Test;
 
 import static org.apache.maven.api.plugin.testing.MojoExtension.getBasedir;
@@ -242,6 +260,54 @@ class DoapMojoTest {
         assertTrue(readed.contains("<wiki rdf:resource=\"http://wiki.foo.org\"/>"));
     }
 
+    /**
+     * Verify the generation of the DOAP files of several artifacts, given by the parameters and by a file.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    @InjectMojo(goal = "generate", pom = "doap-configuration-plugin-config.xml")
+    @Basedir("/unit/doap-configuration/")
+    void testGeneratedDoapArtifacts(DoapMojo mojo) throws Exception {
+        DoapArtifact artifact = new DoapArtifact();
+        artifact.setGroupId("org.codehaus.plexus");
+        artifact.setArtifactId("plexus-utils");
+        artifact.setVersion("1.5.5");
+        artifact.setDoapFileName("doap_batch-plexus-utils.rdf");
+
+        // no version, skipped
+        DoapArtifact invalid = new DoapArtifact();
+        invalid.setGroupId("org.codehaus.plexus");
+        invalid.setArtifactId("plexus-invalid");
+        setVariableValueToObject(mojo, "artifacts", new DoapArtifact[] {artifact, invalid});
+
+        File artifactsFile = new File(getBasedir(), "target/doap-artifacts.txt");
+        artifactsFile.getParentFile().mkdirs();
+        Files.write(
+                artifactsFile.toPath(),
+                ("# artifacts\n\norg.codehaus.plexus:plexus-utils:1.5.5:doap_batch-file.rdf\n"
+                                + "org.codehaus.plexus:plexus-utils:1.5.5:doap_batch-plexus-utils.rdf\n")
+                        .getBytes(StandardCharsets.UTF_8));
+        setVariableValueToObject(mojo, "artifactsFile", artifactsFile);
+
+        mojo.execute();
+
+        for (String name : new String[] {"doap_batch-plexus-utils.rdf", "doap_batch-file.rdf"}) {
+            File doapFile = new File(getBasedir(), "target/" + name);
+            assertTrue(doapFile.exists(), name + " was not generated!");
+            assertTrue(readFile(doapFile).contains("<name>Plexus Common Utilities</name>"));
+        }
+        assertFalse(new File(getBasedir(), "target/doap_plexus-invalid.rdf").exists());
+
+        Files.write(artifactsFile.toPath(), "org.codehaus.plexus:plexus-utils\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            mojo.execute();
+            fail("An invalid artifacts file should fail");
+        } catch (MojoExecutionException e) {
+            assertTrue(e.getMessage().contains("at line 1"));
+        }
+    }
+
     /**
      * Verify the generation of a DOAP file from a minimalist artifact.
      *
@@ -378,6 +444,241 @@ class DoapMojoTest {
         assertTrue(readed.contains("<labs:status>active</labs:status>"));
     }
 
+    /**
+     * Verify that a reproducible DOAP file is byte-identical across generations.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    @InjectMojo(goal = "generate", pom = "doap-configuration-plugin-config.xml")
+    @MojoParameter(name = "outputTimestamp", value = "2024-01-01T00:00:00Z")
+    @Basedir("/unit/doap-configuration/")
+    void testReproducibleDoap(DoapMojo mojo) throws Exception {
+        MavenXpp3Reader pomReader = new MavenXpp3Reader();
+        try (InputStream in = Files.newInputStream(
+                getTestFile("doap-configuration-plugin-config.xml").toPath())) {
+            mavenProject.setModel(pomReader.read(in));
+        }
+        setVariableValueToObject(mojo, "about", mavenProject.getUrl());
+
+        File doapFile = new File(getBasedir(), "target/doap-configuration.rdf");
+        mojo.execute();
+        String first = readFile(doapFile);
+        mojo.execute();
+        String second = readFile(doapFile);
+
+        assertEquals(first, second);
+        assertTrue(first.contains("Generated by Maven Doap Plugin "));
+        assertTrue(first.contains(" on 2024-01-01T00:00:00Z"));
+        assertTrue(first.contains("<foaf:Person rdf:nodeID=\"b"));
+        assertTrue(first.contains("<foaf:member rdf:nodeID=\"b"));
+    }
+
+    /**
+     * Verify that concurrent executions, as in a parallel build, write the same DOAP file as a single execution and
+     * do not share their organizations.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    @InjectMojo(goal = "generate", pom = "doap-configuration-plugin-config.xml")
+    @MojoParameter(name = "outputTimestamp", value = "2024-01-01T00:00:00Z")
+    @Basedir("/unit/doap-configuration/")
+    void testConcurrentExecutions(DoapMojo mojo) throws Exception {
+        MavenXpp3Reader pomReader = new MavenXpp3Reader();
+        try (InputStream in = Files.newInputStream(
+                getTestFile("doap-configuration-plugin-config.xml").toPath())) {
+            mavenProject.setModel(pomReader.read(in));
+        }
+        setVariableValueToObject(mojo, "about", mavenProject.getUrl());
+
+        File doapFile = new File(getBasedir(), "target/doap-configuration.rdf");
+        mojo.execute();
+        String expected = readFile(doapFile);
+
+        int executions = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < executions; i++) {
+                // Maven creates a mojo by execution
+                DoapMojo execution = copy(mojo);
+                File file = new File(getBasedir(), "target/concurrent/doap-" + i + ".rdf");
+                setVariableValueToObject(execution, "doapFile", "target/concurrent/" + file.getName());
+                results.add(executor.submit(() -> {
+                    execution.execute();
+                    return readFile(file);
+                }));
+            }
+
+            for (Future<String> result : results) {
+                String content = result.get(2, TimeUnit.MINUTES);
+                assertEquals(expected, content);
+                assertEquals(1, StringUtils.countMatches(content, "<foaf:Organization>"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verify that the releases of the previous DOAP file are reused without probing when the repository answers that
+     * the metadata is unchanged, even without incremental releases.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    @InjectMojo(goal = "generate", pom = "doap-configuration-plugin-config.xml")
+    @MojoParameter(name = "revalidateMetadata", value = "true")
+    @MojoParameter(name = "useReleaseCache", value = "false")
+    @Basedir("/unit/doap-configuration/")
+    void testUnchangedMetadataNotProbed(DoapMojo mojo) throws Exception {
+        MavenXpp3Reader pomReader = new MavenXpp3Reader();
+        try (InputStream in = Files.newInputStream(
+                getTestFile("doap-configuration-plugin-config.xml").toPath())) {
+            mavenProject.setModel(pomReader.read(in));
+        }
+        setVariableValueToObject(mojo, "about", mavenProject.getUrl());
+        setVariableValueToObject(mojo, "doapFile", "target/revalidated/doap.rdf");
+        setVariableValueToObject(mojo, "releaseCacheDirectory", new File(getBasedir(), "target/revalidated/cache"));
+
+        byte[] metadata = ("<metadata><versioning><versions><version>1.0</version></versions>"
+                        + "<lastUpdated>20250201120000</lastUpdated></versioning></metadata>")
+                .getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repo", exchange -> {
+            if (!exchange.getRequestURI().getPath().endsWith("/resources-test/maven-metadata.xml")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, metadata.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(metadata);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/repo";
+            ArtifactRepositoryPolicy snapshots = new ArtifactRepositoryPolicy(false, null, null);
+            setVariableValueToObject(
+                    mojo,
+                    "remoteRepositories",
+                    Collections.singletonList(new MavenArtifactRepository(
+                            "stub", url, new DefaultRepositoryLayout(), snapshots, new ArtifactRepositoryPolicy())));
+            StubConnectorProvider connectorProvider = new StubConnectorProvider().exists("stub", "1.0");
+            RepositorySystem repositorySystem = (RepositorySystem) getVariableValueFromObject(mojo, "repositorySystem");
+            setVariableValueToObject(mojo, "connectorProvider", connectorProvider);
+
+            setVariableValueToObject(mojo, "sessionCache", new DoapSessionCache(repositorySystem));
+            mojo.execute();
+            assertEquals(1, connectorProvider.getBatches("stub"));
+            File doapFile = new File(getBasedir(), "target/revalidated/doap.rdf");
+            String expected = readFile(doapFile);
+            assertTrue(expected.contains("<file-release>" + url + "/resources/test/resources-test/1.0/"));
+
+            // the next build, with a 304 Not Modified
+            setVariableValueToObject(mojo, "sessionCache", new DoapSessionCache(repositorySystem));
+            mojo.execute();
+            assertEquals(1, connectorProvider.getBatches("stub"));
+            assertEquals(expected, readFile(doapFile));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Verify that the metadata resolved incompletely by the up-to-date check is reused by the releases, instead of
+     * being requested again from the failing repository.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    @InjectMojo(goal = "generate", pom = "doap-configuration-plugin-config.xml")
+    @MojoParameter(name = "upToDateCheck", value = "true")
+    @MojoParameter(name = "revalidateMetadata", value = "true")
+    @MojoParameter(name = "useReleaseCache", value = "false")
+    @Basedir("/unit/doap-configuration/")
+    void testIncompleteMetadataResolvedOnce(DoapMojo mojo) throws Exception {
+        MavenXpp3Reader pomReader = new MavenXpp3Reader();
+        try (InputStream in = Files.newInputStream(
+                getTestFile("doap-configuration-plugin-config.xml").toPath())) {
+            mavenProject.setModel(pomReader.read(in));
+        }
+        setVariableValueToObject(mojo, "about", mavenProject.getUrl());
+        setVariableValueToObject(mojo, "doapFile", "target/incomplete/doap.rdf");
+        setVariableValueToObject(mojo, "releaseCacheDirectory", new File(getBasedir(), "target/incomplete/cache"));
+
+        byte[] metadata = ("<metadata><versioning><versions><version>1.0</version></versions>"
+                        + "<lastUpdated>20250201120000</lastUpdated></versioning></metadata>")
+                .getBytes(StandardCharsets.UTF_8);
+        AtomicInteger brokenRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repo", exchange -> {
+            if (!exchange.getRequestURI().getPath().endsWith("/resources-test/maven-metadata.xml")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.sendResponseHeaders(200, metadata.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(metadata);
+                }
+            }
+            exchange.close();
+        });
+        server.createContext("/broken", exchange -> {
+            brokenRequests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort();
+            ArtifactRepositoryPolicy snapshots = new ArtifactRepositoryPolicy(false, null, null);
+            setVariableValueToObject(
+                    mojo,
+                    "remoteRepositories",
+                    Arrays.asList(
+                            new MavenArtifactRepository(
+                                    "stub",
+                                    url + "/repo",
+                                    new DefaultRepositoryLayout(),
+                                    snapshots,
+                                    new ArtifactRepositoryPolicy()),
+                            new MavenArtifactRepository(
+                                    "broken",
+                                    url + "/broken",
+                                    new DefaultRepositoryLayout(),
+                                    snapshots,
+                                    new ArtifactRepositoryPolicy())));
+            StubConnectorProvider connectorProvider = new StubConnectorProvider().exists("stub", "1.0");
+            RepositorySystem repositorySystem = (RepositorySystem) getVariableValueFromObject(mojo, "repositorySystem");
+            setVariableValueToObject(mojo, "connectorProvider", connectorProvider);
+            setVariableValueToObject(mojo, "sessionCache", new DoapSessionCache(repositorySystem));
+
+            mojo.execute();
+            assertEquals(1, brokenRequests.get());
+            String content = readFile(new File(getBasedir(), "target/incomplete/doap.rdf"));
+            assertTrue(content.contains("<file-release>" + url + "/repo/resources/test/resources-test/1.0/"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static DoapMojo copy(DoapMojo mojo) throws IllegalAccessException {
+        DoapMojo copy = new DoapMojo();
+        for (Field field : DoapMojo.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                field.set(copy, field.get(mojo));
+            }
+        }
+        copy.setLog(mojo.getLog());
+        return copy;
+    }
+
     private String readFile(File file) throws IOException {
         return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
     }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link DoapSessionCache} class.
+ */
+class DoapSessionCacheTest {
+    private final List<ArtifactRepository> repositories = Collections.singletonList(new MavenArtifactRepository(
+            "central",
+            "https://repo.maven.apache.org/maven2",
+            new DefaultRepositoryLayout(),
+            new ArtifactRepositoryPolicy(),
+            new ArtifactRepositoryPolicy()));
+
+    @TempDir
+    File cacheDirectory;
+
+    /**
+     * Verify that the versioning is resolved once, unless its resolution was not complete.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testVersioning() throws Exception {
+        DoapSessionCache cache = new DoapSessionCache(null);
+        AtomicInteger resolved = new AtomicInteger();
+        DoapSessionCache.VersioningResolver resolver = () -> {
+            resolved.incrementAndGet();
+            return new Versioning();
+        };
+
+        ReleaseDiscoveryGuard guard = new ReleaseDiscoveryGuard(3, 0, new SystemStreamLog());
+        Versioning versioning = cache.getVersioning("org.foo", "bar", repositories, guard, resolver);
+        assertSame(versioning, cache.getVersioning("org.foo", "bar", repositories, guard, resolver));
+        assertNotSame(versioning, cache.getVersioning("org.foo", "baz", repositories, guard, resolver));
+        assertEquals(2, resolved.get());
+
+        ReleaseDiscoveryGuard failed = new ReleaseDiscoveryGuard(3, 0, new SystemStreamLog());
+        failed.recordFailure(repositories.get(0), "timeout");
+        cache.getVersioning("org.foo", "qux", repositories, failed, resolver);
+        cache.getVersioning("org.foo", "qux", repositories, failed, resolver);
+        assertEquals(4, resolved.get());
+
+        DoapSessionCache.Statistics statistics = cache.getStatistics().get(DoapSessionCache.METADATA);
+        assertEquals(1, statistics.getHits());
+        assertEquals(4, statistics.getMisses());
+        cache.logStatistics(new SystemStreamLog());
+    }
+
+    /**
+     * Verify that the release existence cache of an artifact is opened once.
+     */
+    @Test
+    void testExistenceCache() {
+        DoapSessionCache cache = new DoapSessionCache(null);
+        SystemStreamLog log = new SystemStreamLog();
+        ReleaseExistenceCache existenceCache = cache.getExistenceCache(cacheDirectory, "org.foo", "bar", -1, log);
+        assertSame(existenceCache, cache.getExistenceCache(cacheDirectory, "org.foo", "bar", -1, log));
+        assertNotSame(existenceCache, cache.getExistenceCache(cacheDirectory, "org.foo", "baz", -1, log));
+    }
+
+    /**
+     * Verify that only the last generation to finish is reported, whatever the order of the projects.
+     */
+    @Test
+    void testFinishExecution() {
+        DoapSessionCache cache = new DoapSessionCache(null);
+        List<String> expected = Arrays.asList("org.foo:parent@default-cli", "org.foo:bar@default-cli");
+        // the last project of the reactor finishes first, e.g. in a parallel build
+        assertFalse(cache.finishExecution(expected, "org.foo:bar@default-cli"));
+        assertFalse(cache.finishExecution(expected, "org.foo:bar@default-cli"));
+        assertTrue(cache.finishExecution(expected, "org.foo:parent@default-cli"));
+    }
+}
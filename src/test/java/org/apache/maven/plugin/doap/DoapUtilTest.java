@@ -22,9 +22,15 @@ import javax.inject.Inject;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.model.Contributor;
 import org.apache.maven.model.Developer;
@@ -35,8 +41,10 @@ import org.codehaus.plexus.testing.PlexusTest;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.codehaus.plexus.testing.PlexusExtension.getBasedir;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -105,6 +113,83 @@ class DoapUtilTest {
         }
     }
 
+    /**
+     * Test method for {@link DoapUtil#writeChecksum(XMLWriter, String)}.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testWriteChecksum() throws Exception {
+        StringWriter w = new StringWriter();
+        XMLWriter writer = new PrettyPrintXMLWriter(w);
+        DoapUtil.writeChecksum(writer, "sha1:da39a3ee5e6b4b0d3255bfef95601890afd80709");
+        w.close();
+        assertEquals(
+                "<spdx:checksum><spdx:Checksum><spdx:algorithm " + DoapUtil.RDF_RESOURCE + "=\""
+                        + DoapUtil.SPDX_NAMESPACE_URI + "checksumAlgorithm_sha1\"/>"
+                        + "<spdx:checksumValue>da39a3ee5e6b4b0d3255bfef95601890afd80709</spdx:checksumValue>"
+                        + "</spdx:Checksum></spdx:checksum>",
+                w.toString().replaceAll(">\\s+<", "><"));
+    }
+
+    /**
+     * Test method for {@link DoapUtil#getContentNodeId(String, String...)} and {@link DoapUtil#parseOutputTimestamp(String)}.
+     */
+    @Test
+    void testReproducibleOutput() {
+        String nodeId = DoapUtil.getContentNodeId("maintainer", "Jane Doe", null, "Example");
+        assertEquals(nodeId, DoapUtil.getContentNodeId("maintainer", "Jane Doe", null, "Example"));
+        assertTrue(nodeId.matches("b[0-9a-f]{16}"));
+        assertFalse(nodeId.equals(DoapUtil.getContentNodeId("maintainer", "Jane Doe", "Example", null)));
+        assertFalse(nodeId.equals(DoapUtil.getContentNodeId("maintainer")));
+
+        assertNull(DoapUtil.parseOutputTimestamp(null));
+        assertNull(DoapUtil.parseOutputTimestamp(""));
+        assertNull(DoapUtil.parseOutputTimestamp("-"));
+        assertEquals(1704067200000L, DoapUtil.parseOutputTimestamp("1704067200").getTime());
+        assertEquals(1704067200000L, DoapUtil.parseOutputTimestamp("2024-01-01T01:00:00+01:00").getTime());
+        try {
+            DoapUtil.parseOutputTimestamp("yesterday");
+            fail("Invalid timestamp");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test method for the deprecated {@link DoapUtil#getNodeId()}, still unique for each call.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    void testDeprecatedNodeId() {
+        String nodeId = DoapUtil.getNodeId();
+        assertTrue(nodeId.matches("b[0-9]+"));
+        assertFalse(nodeId.equals(DoapUtil.getNodeId()));
+    }
+
+    /**
+     * Test method for {@link DoapUtil#writeIfChanged(File, byte[])}.
+     *
+     * @param tempDir the temporary directory
+     * @throws Exception if any
+     */
+    @Test
+    void testWriteIfChanged(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, "target/doap.rdf");
+        byte[] content = "<rdf:RDF/>".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(DoapUtil.writeIfChanged(file, content));
+        assertTrue(file.setLastModified(1000L));
+        assertFalse(DoapUtil.writeIfChanged(file, content));
+        assertEquals(1000L, file.lastModified());
+
+        // same size, different content
+        byte[] changed = "<rdf:RDX/>".getBytes(StandardCharsets.UTF_8);
+        assertTrue(DoapUtil.writeIfChanged(file, changed));
+        assertArrayEquals(changed, Files.readAllBytes(file.toPath()));
+        assertEquals(1, file.getParentFile().list().length);
+    }
+
     /**
      * Test method for:
      * {@link DoapUtil#getContributorsWithDeveloperRole(I18N, List)}
@@ -190,6 +275,36 @@ class DoapUtilTest {
                 sizeBeforeEmeritus);
     }
 
+    /**
+     * Test method for {@link DoapUtil#getContributorsByDoapRoles(I18N, List)}.
+     */
+    @Test
+    void testContributorsByDoapRoles() {
+        Developer maintainer = new Developer();
+        maintainer.addRole("Maintainer");
+        maintainer.addRole("Lead maintainer");
+        maintainer.addRole("Tester");
+        Developer emeritus = new Developer();
+        emeritus.addRole("Emeritus");
+        Developer unknown = new Developer();
+
+        List<Contributor> developers = new ArrayList<>();
+        developers.add(maintainer);
+        developers.add(emeritus);
+        developers.add(unknown);
+        developers.add(maintainer);
+
+        Map<String, List<Contributor>> roles = DoapUtil.getContributorsByDoapRoles(i18n, developers);
+        assertEquals(7, roles.size());
+        assertEquals(Collections.singletonList(maintainer), roles.get("maintainers"));
+        assertEquals(Collections.singletonList(maintainer), roles.get("testers"));
+        assertEquals(Collections.singletonList(unknown), roles.get("unknowns"));
+        assertTrue(roles.get("developers").isEmpty());
+        assertTrue(roles.get("documenters").isEmpty());
+        assertTrue(roles.get("translators").isEmpty());
+        assertTrue(roles.get("helpers").isEmpty());
+    }
+
     /**
      * Test method for:
      * {@link DoapUtil#validate(java.io.File)}
@@ -242,4 +357,55 @@ class DoapUtilTest {
         assertEquals("developerName2", DoapUtil.interpolate("${project.developers[1].name}", project, null));
         assertEquals("myValue", DoapUtil.interpolate("${myKey}", project, null));
     }
+
+    /**
+     * Test method for {@link DoapUtil.ReflectionValueExtractor#evaluate(String, Object, boolean)}, including
+     * concurrent evaluations of the cached expressions.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testReflectionValueExtractor() throws Exception {
+        Developer developer = new Developer();
+        developer.setEmail("jdoe@example.org");
+        MavenProject project = new MavenProject();
+        project.setDevelopers(Collections.singletonList(developer));
+        project.setExecutionRoot(true);
+
+        assertEquals(
+                "jdoe@example.org",
+                DoapUtil.ReflectionValueExtractor.evaluate("project.developers[0].email", project, true));
+        assertEquals(Boolean.TRUE, DoapUtil.ReflectionValueExtractor.evaluate("project.executionRoot", project));
+        assertNull(DoapUtil.ReflectionValueExtractor.evaluate("project.developers[0].invalid", project));
+        assertNull(DoapUtil.ReflectionValueExtractor.evaluate("project.organization.name", project));
+        try {
+            DoapUtil.ReflectionValueExtractor.evaluate("project.developers[1].email", project);
+            fail("Out of bounds");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            assertTrue(true);
+        }
+
+        // another class at the same step
+        Contributor contributor = new Contributor();
+        contributor.setEmail("jroe@example.org");
+        assertEquals("jroe@example.org", DoapUtil.ReflectionValueExtractor.evaluate("contributor.email", contributor));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                MavenProject other = new MavenProject();
+                Developer otherDeveloper = new Developer();
+                otherDeveloper.setEmail("developer" + i + "@example.org");
+                other.setDevelopers(Collections.singletonList(otherDeveloper));
+                futures.add(executor.submit(
+                        () -> DoapUtil.ReflectionValueExtractor.evaluate("project.developers[0].email", other)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("developer" + i + "@example.org", futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
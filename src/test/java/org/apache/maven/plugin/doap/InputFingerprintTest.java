@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.doap.options.DoapOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link InputFingerprint} class.
+ */
+class InputFingerprintTest {
+    /**
+     * Verify that the fingerprint depends on the inputs only, not on the iteration order of the maps.
+     */
+    @Test
+    void testFingerprint() {
+        Map<String, String> map1 = new HashMap<>();
+        map1.put("a", "1");
+        map1.put("b", "2");
+        Map<String, String> map2 = new LinkedHashMap<>();
+        map2.put("b", "2");
+        map2.put("a", "1");
+
+        Model model = new Model();
+        model.setGroupId("org.example");
+        model.setArtifactId("example");
+
+        String hex = new InputFingerprint()
+                .add("map", map1)
+                .add("versions", Arrays.asList("1.0", "1.1"))
+                .addModel("project", model)
+                .toHex();
+        assertEquals(64, hex.length());
+        assertEquals(
+                hex,
+                new InputFingerprint()
+                        .add("map", map2)
+                        .add("versions", Arrays.asList("1.0", "1.1"))
+                        .addModel("project", model)
+                        .toHex());
+        assertNotEquals(
+                hex,
+                new InputFingerprint()
+                        .add("map", map2)
+                        .add("versions", Arrays.asList("1.0", "1.1", "1.2"))
+                        .addModel("project", model)
+                        .toHex());
+
+        model.setDescription("changed");
+        assertNotEquals(
+                hex,
+                new InputFingerprint()
+                        .add("map", map1)
+                        .add("versions", Arrays.asList("1.0", "1.1"))
+                        .addModel("project", model)
+                        .toHex());
+    }
+
+    /**
+     * Verify that the options are added through their getters.
+     */
+    @Test
+    void testAddBean() {
+        DoapOptions options = new DoapOptions();
+        String hex = new InputFingerprint().addBean("doapOptions", options).toHex();
+        assertEquals(hex, new InputFingerprint().addBean("doapOptions", new DoapOptions()).toHex());
+
+        options.setName("changed");
+        assertNotEquals(hex, new InputFingerprint().addBean("doapOptions", options).toHex());
+    }
+
+    /**
+     * Verify that the expressions of the added values and of the model are recorded.
+     */
+    @Test
+    void testExpressions() {
+        DoapOptions options = new DoapOptions();
+        options.setWiki("${env.WIKI_URL}/doap");
+        options.setName("${project.name} (${settings.localRepository})");
+
+        Model model = new Model();
+        model.setUrl("${site.url}");
+
+        InputFingerprint fingerprint = new InputFingerprint()
+                .add("about", "http://www.example.org")
+                .addBean("doapOptions", options)
+                .addModel("project", model);
+        // with the expressions of the default options
+        assertTrue(fingerprint
+                .getExpressions()
+                .containsAll(Arrays.asList(
+                        "${env.WIKI_URL}", "${project.name}", "${settings.localRepository}", "${site.url}")));
+        assertFalse(fingerprint.getExpressions().contains("${site.url}/doap"));
+    }
+
+    /**
+     * Verify the storage of a fingerprint.
+     *
+     * @param tempDir the temporary directory
+     * @throws Exception if any
+     */
+    @Test
+    void testReadWrite(@TempDir File tempDir) throws Exception {
+        File file = new File(tempDir, ".doap.rdf.fingerprint");
+        assertNull(InputFingerprint.read(file));
+
+        String hex = new InputFingerprint().add("lang", "en").toHex();
+        InputFingerprint.write(file, hex);
+        assertEquals(hex, InputFingerprint.read(file));
+    }
+}
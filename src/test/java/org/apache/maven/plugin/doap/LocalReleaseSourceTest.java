@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.testing.PlexusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link LocalReleaseSource} class.
+ */
+@PlexusTest
+class LocalReleaseSourceTest {
+    private static final String CENTRAL = "https://repo.maven.apache.org/maven2";
+
+    private static final String MIRROR = "https://mirror.example.org/maven2";
+
+    @Inject
+    private ArtifactFactory artifactFactory;
+
+    @TempDir
+    File basedir;
+
+    /**
+     * Verify that the releases are listed from the metadata, the markers and the files of the local repository.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testListReleases() throws Exception {
+        File directory = new File(basedir, "org/foo/bar");
+        write(
+                new File(directory, "maven-metadata-central.xml"),
+                "<metadata><groupId>org.foo</groupId><artifactId>bar</artifactId><versioning>"
+                        + "<versions><version>1.0</version><version>1.1</version></versions>"
+                        + "<lastUpdated>20200101120000</lastUpdated></versioning></metadata>");
+        write(
+                new File(directory, "maven-metadata-local.xml"),
+                "<metadata><versioning><versions><version>3.0</version></versions></versioning></metadata>");
+
+        write(new File(directory, "1.0/bar-1.0.jar"), "");
+        write(new File(directory, "1.0/_remote.repositories"), "bar-1.0.jar>central=\nbar-1.0.pom>central=\n");
+        write(new File(directory, "1.1/bar-1.1.pom"), "");
+        write(new File(directory, "1.1/_remote.repositories"), "bar-1.1.pom>central=\n");
+        write(new File(directory, "2.0/bar-2.0.jar"), "");
+        write(new File(directory, "2.0/_remote.repositories"), "bar-2.0.jar>central=\nbar-2.0.jar>mirror=\n");
+        // installed by a local build only
+        write(new File(directory, "3.0/bar-3.0.jar"), "");
+        write(new File(directory, "3.0/_remote.repositories"), "bar-3.0.jar>=\n");
+
+        LocalReleaseSource source = new LocalReleaseSource(
+                artifactFactory, repository("local", basedir.toURI().toString()), new SystemStreamLog());
+
+        List<ArtifactRepository> repositories =
+                Arrays.asList(repository("central", CENTRAL), repository("mirror", MIRROR));
+        Versioning versioning = source.resolve("org.foo", "bar", repositories);
+        assertEquals(Arrays.asList("1.0", "1.1", "2.0"), versioning.getVersions());
+        assertEquals("20200101120000", versioning.getLastUpdated());
+
+        Map<String, List<String>> fileReleases =
+                source.probe("org.foo", "bar", "jar", versioning.getVersions(), repositories);
+        assertEquals(Collections.singletonList(CENTRAL + "/org/foo/bar/1.0/bar-1.0.jar"), fileReleases.get("1.0"));
+        assertEquals(Collections.emptyList(), fileReleases.get("1.1"));
+        assertEquals(
+                Arrays.asList(CENTRAL + "/org/foo/bar/2.0/bar-2.0.jar", MIRROR + "/org/foo/bar/2.0/bar-2.0.jar"),
+                fileReleases.get("2.0"));
+    }
+
+    /**
+     * Verify an artifact unknown by the local repository.
+     */
+    @Test
+    void testUnknownArtifact() {
+        LocalReleaseSource source = new LocalReleaseSource(
+                artifactFactory, repository("local", basedir.toURI().toString()), new SystemStreamLog());
+        assertNull(source.resolve("org.foo", "unknown", Collections.<ArtifactRepository>emptyList()));
+    }
+
+    /**
+     * Verify that the snapshot versions are not listed, neither from the metadata of a snapshot repository nor from
+     * the downloaded snapshot directories.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testSnapshotsIgnored() throws Exception {
+        File directory = new File(basedir, "org/foo/bar");
+        write(
+                new File(directory, "maven-metadata-central.xml"),
+                "<metadata><versioning><versions><version>1.0</version><version>1.1-SNAPSHOT</version></versions>"
+                        + "</versioning></metadata>");
+        write(
+                new File(directory, "maven-metadata-snapshots.xml"),
+                "<metadata><versioning><versions><version>1.1</version><version>2.0-SNAPSHOT</version></versions>"
+                        + "</versioning></metadata>");
+        write(new File(directory, "2.0-SNAPSHOT/bar-2.0-20250101.120000-1.jar"), "");
+        write(new File(directory, "2.0-SNAPSHOT/_remote.repositories"), "bar-2.0-20250101.120000-1.jar>snapshots=\n");
+
+        LocalReleaseSource source = new LocalReleaseSource(
+                artifactFactory, repository("local", basedir.toURI().toString()), new SystemStreamLog());
+
+        List<ArtifactRepository> repositories =
+                Arrays.asList(repository("central", CENTRAL), snapshotRepository("snapshots", MIRROR));
+        Versioning versioning = source.resolve("org.foo", "bar", repositories);
+        assertEquals(Collections.singletonList("1.0"), versioning.getVersions());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ArtifactRepository repository(String id, String url) {
+        ArtifactRepositoryPolicy releases = new ArtifactRepositoryPolicy();
+        ArtifactRepositoryPolicy snapshots = new ArtifactRepositoryPolicy();
+        snapshots.setEnabled(false);
+        return new MavenArtifactRepository(id, url, new DefaultRepositoryLayout(), snapshots, releases);
+    }
+
+    private static ArtifactRepository snapshotRepository(String id, String url) {
+        ArtifactRepositoryPolicy releases = new ArtifactRepositoryPolicy();
+        releases.setEnabled(false);
+        ArtifactRepositoryPolicy snapshots = new ArtifactRepositoryPolicy();
+        return new MavenArtifactRepository(id, url, new DefaultRepositoryLayout(), snapshots, releases);
+    }
+}
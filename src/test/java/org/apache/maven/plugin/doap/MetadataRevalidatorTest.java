@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.Authentication;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.repository.AuthenticationBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link MetadataRevalidator} class against a stub HTTP repository.
+ */
+class MetadataRevalidatorTest {
+    private static final String PATH = "/repo/org/foo/bar/maven-metadata.xml";
+
+    @TempDir
+    File cacheDirectory;
+
+    private HttpServer server;
+
+    private volatile String content = "<metadata><versioning><versions><version>1.0</version></versions>"
+            + "</versioning></metadata>";
+
+    private volatile int status;
+
+    /** The If-None-Match headers received by the stub repository, null if none. */
+    private final List<String> conditions = new ArrayList<>();
+
+    private RemoteRepository repository;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repo", this::handle);
+        server.start();
+        repository = new RemoteRepository.Builder(
+                        "stub", "default", "http://127.0.0.1:" + server.getAddress().getPort() + "/repo")
+                .build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String etag = "\"" + Integer.toHexString(content.hashCode()) + "\"";
+        conditions.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        if (status != 0 || !PATH.equals(exchange.getRequestURI().getPath())) {
+            exchange.sendResponseHeaders(status != 0 ? status : 404, -1);
+        } else if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            byte[] body = content.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.getResponseHeaders().add("Last-Modified", "Sat, 01 Feb 2025 12:00:00 GMT");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    /**
+     * Verify that unchanged metadata is revalidated with its ETag, and changed metadata fetched again.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testRevalidate() throws Exception {
+        MetadataRevalidator revalidator = new MetadataRevalidator(
+                cacheDirectory, new DefaultRepositorySystemSession(), new SystemStreamLog());
+
+        MetadataRevalidator.Result result = revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE);
+        assertFalse(result.isUnchanged());
+        assertEquals(content, new String(Files.readAllBytes(result.getFile().toPath()), StandardCharsets.UTF_8));
+        assertNull(conditions.get(0));
+
+        result = revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE);
+        assertTrue(result.isUnchanged());
+        assertEquals(content, new String(Files.readAllBytes(result.getFile().toPath()), StandardCharsets.UTF_8));
+        assertEquals(2, conditions.size());
+        assertNotNull(conditions.get(1));
+
+        content = content.replace("1.0", "1.1");
+        result = revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE);
+        assertFalse(result.isUnchanged());
+        assertEquals(content, new String(Files.readAllBytes(result.getFile().toPath()), StandardCharsets.UTF_8));
+
+        // an artifact without metadata
+        result = revalidator.fetch(repository, "org.foo", "unknown", Long.MAX_VALUE);
+        assertFalse(result.isUnchanged());
+        assertNull(result.getFile());
+
+        status = 503;
+        assertThrows(IOException.class, () -> revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE));
+    }
+
+    /**
+     * Verify that the validators of a repository are not sent to another server with the same repository ID.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testRepositoryUrlChanged() throws Exception {
+        MetadataRevalidator revalidator = new MetadataRevalidator(
+                cacheDirectory, new DefaultRepositorySystemSession(), new SystemStreamLog());
+        assertFalse(revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE).isUnchanged());
+
+        HttpServer other = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        other.createContext("/repo", this::handle);
+        other.start();
+        try {
+            RemoteRepository moved = new RemoteRepository.Builder(
+                            "stub", "default", "http://127.0.0.1:" + other.getAddress().getPort() + "/repo")
+                    .build();
+            assertFalse(revalidator.fetch(moved, "org.foo", "bar", Long.MAX_VALUE).isUnchanged());
+            assertEquals(2, conditions.size());
+            assertNull(conditions.get(1));
+        } finally {
+            other.stop(0);
+        }
+    }
+
+    /**
+     * Verify that the stored metadata and its validators stay consistent when fetched concurrently.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testConcurrentFetches() throws Exception {
+        MetadataRevalidator revalidator = new MetadataRevalidator(
+                cacheDirectory, new DefaultRepositorySystemSession(), new SystemStreamLog());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MetadataRevalidator.Result>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                if (i % 8 == 0) {
+                    content = content.replace("</versions>", "<version>1." + i + "</version></versions>");
+                }
+                results.add(executor.submit(() -> revalidator.fetch(repository, "org.foo", "bar", Long.MAX_VALUE)));
+            }
+            for (Future<MetadataRevalidator.Result> result : results) {
+                assertNotNull(result.get().getFile());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        File[] stored = new File(cacheDirectory, "org.foo/bar").listFiles((dir, name) -> name.endsWith(".xml"));
+        assertEquals(1, stored.length);
+        String body = new String(Files.readAllBytes(stored[0].toPath()), StandardCharsets.UTF_8);
+        Properties validators = new Properties();
+        try (InputStream in = Files.newInputStream(
+                new File(stored[0].getPath().replace(".xml", ".properties")).toPath())) {
+            validators.load(in);
+        }
+        // the validators are the ones of the stored body
+        assertEquals("\"" + Integer.toHexString(body.hashCode()) + "\"", validators.getProperty("etag"));
+    }
+
+    /**
+     * Verify that the connect and read timeouts are bounded by the remaining time of the discovery.
+     */
+    @Test
+    void testBound() {
+        assertEquals(10000, MetadataRevalidator.bound(10000, Long.MAX_VALUE));
+        assertEquals(0, MetadataRevalidator.bound(0, Long.MAX_VALUE));
+        assertEquals(500, MetadataRevalidator.bound(10000, 500));
+        assertEquals(500, MetadataRevalidator.bound(0, 500));
+        assertEquals(1, MetadataRevalidator.bound(10000, 0));
+    }
+
+    /**
+     * Verify that the repositories with authentication or a transport configuration are left to Resolver.
+     */
+    @Test
+    void testSupports() {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        assertTrue(MetadataRevalidator.supports(repository, session));
+
+        Authentication authentication =
+                new AuthenticationBuilder().addUsername("user").addPassword("secret").build();
+        assertFalse(MetadataRevalidator.supports(
+                new RemoteRepository.Builder(repository).setAuthentication(authentication).build(), session));
+        assertFalse(MetadataRevalidator.supports(
+                new RemoteRepository.Builder("local", "default", "file:///tmp/repo").build(), session));
+
+        session.setConfigProperty("aether.connector.http.headers.other", "X-Token: secret");
+        assertTrue(MetadataRevalidator.supports(repository, session));
+        session.setConfigProperty("aether.connector.http.headers.stub", "X-Token: secret");
+        assertFalse(MetadataRevalidator.supports(repository, session));
+
+        session = new DefaultRepositorySystemSession();
+        session.setConfigProperty("aether.connector.requestTimeout.stub", 1000);
+        assertFalse(MetadataRevalidator.supports(repository, session));
+
+        session = new DefaultRepositorySystemSession();
+        session.setConfigProperty("aether.connector.https.securityMode", "insecure");
+        assertFalse(MetadataRevalidator.supports(repository, session));
+    }
+}
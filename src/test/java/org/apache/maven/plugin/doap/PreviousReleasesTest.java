@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link PreviousReleases} class.
+ */
+class PreviousReleasesTest {
+    private static final String DOAP_NS = "http://usefulinc.com/ns/doap#";
+
+    @TempDir
+    File directory;
+
+    /**
+     * Verify that the releases are read from a generated DOAP file.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testRead() throws Exception {
+        File doapFile = new File(directory, "doap.rdf");
+        Files.write(
+                doapFile.toPath(),
+                ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                                + "<rdf:RDF xml:lang=\"en\" xmlns=\"" + DOAP_NS + "\""
+                                + " xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\""
+                                + " xmlns:spdx=\"" + DoapUtil.SPDX_NAMESPACE_URI + "\">\n"
+                                + "  <Project rdf:about=\"https://example.org/bar\">\n"
+                                + "    <release>\n"
+                                + "      <Version>\n"
+                                + "        <name>Bar - 2.0</name>\n"
+                                + "        <revision>2.0</revision>\n"
+                                + "        <file-release>https://b.example.org/bar-2.0.jar</file-release>\n"
+                                + "        <file-release>https://a.example.org/bar-2.0.jar</file-release>\n"
+                                + "        <created>2020-01-01</created>\n"
+                                + "        <spdx:checksum><spdx:Checksum>\n"
+                                + "          <spdx:algorithm rdf:resource=\"" + DoapUtil.SPDX_NAMESPACE_URI
+                                + "checksumAlgorithm_sha1\"/>\n"
+                                + "          <spdx:checksumValue>da39a3ee</spdx:checksumValue>\n"
+                                + "        </spdx:Checksum></spdx:checksum>\n"
+                                + "      </Version>\n"
+                                + "    </release>\n"
+                                + "    <release>\n"
+                                + "      <Version>\n"
+                                + "        <name>Bar - 1.0</name>\n"
+                                + "        <revision>1.0</revision>\n"
+                                + "      </Version>\n"
+                                + "    </release>\n"
+                                + "  </Project>\n"
+                                + "</rdf:RDF>\n")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        PreviousReleases releases = PreviousReleases.read(doapFile, DOAP_NS, new SystemStreamLog());
+        assertEquals(2, releases.size());
+
+        PreviousReleases.Release release = releases.get("2.0");
+        assertEquals("2.0", release.getRevision());
+        assertEquals("2020-01-01", release.getCreated());
+        assertEquals("sha1:da39a3ee", release.getChecksum());
+        assertEquals(
+                Arrays.asList("https://b.example.org/bar-2.0.jar", "https://a.example.org/bar-2.0.jar"),
+                PreviousReleases.sortByRepository(
+                        release.getFileReleases(),
+                        Arrays.asList(
+                                repository("b", "https://b.example.org"), repository("a", "https://a.example.org"))));
+
+        release = releases.get("1.0");
+        assertEquals(Collections.emptyList(), release.getFileReleases());
+        assertNull(release.getCreated());
+        assertNull(release.getChecksum());
+
+        assertNull(releases.get("3.0"));
+    }
+
+    /**
+     * Verify that a missing or invalid DOAP file has no release.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testReadInvalid() throws Exception {
+        File doapFile = new File(directory, "doap.rdf");
+        assertEquals(0, PreviousReleases.read(doapFile, DOAP_NS, new SystemStreamLog()).size());
+
+        Files.write(doapFile.toPath(), "<rdf:RDF".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, PreviousReleases.read(doapFile, DOAP_NS, new SystemStreamLog()).size());
+    }
+
+    private static ArtifactRepository repository(String id, String url) {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        return new MavenArtifactRepository(id, url, new DefaultRepositoryLayout(), policy, policy);
+    }
+}
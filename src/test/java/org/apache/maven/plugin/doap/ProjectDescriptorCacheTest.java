@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.testing.PlexusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link ProjectDescriptorCache} class.
+ */
+@PlexusTest
+class ProjectDescriptorCacheTest {
+    @Inject
+    private ArtifactFactory artifactFactory;
+
+    @TempDir
+    File basedir;
+
+    /**
+     * Verify that a descriptor is reduced, and only used while the POM files of the artifact and its parent are
+     * unchanged.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testCache() throws Exception {
+        File repository = new File(basedir, "repository");
+        File parentPom = new File(repository, "org/foo/parent/1/parent-1.pom");
+        write(parentPom, pom("<groupId>org.foo</groupId><artifactId>parent</artifactId><version>1</version>"));
+        write(
+                new File(repository, "org/foo/bar/1.0/bar-1.0.pom"),
+                pom("<parent><groupId>org.foo</groupId><artifactId>parent</artifactId><version>1</version></parent>"
+                        + "<artifactId>bar</artifactId><version>1.0</version>"));
+
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        ProjectDescriptorCache cache = new ProjectDescriptorCache(
+                new File(basedir, "descriptors"),
+                artifactFactory,
+                new MavenArtifactRepository(
+                        "local", repository.toURI().toString(), new DefaultRepositoryLayout(), policy, policy),
+                new SystemStreamLog());
+        assertNull(cache.get("org.foo", "bar", "1.0"));
+
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("org.foo");
+        model.setArtifactId("bar");
+        model.setVersion("1.0");
+        model.setName("Bar");
+        License license = new License();
+        license.setName("Apache-2.0");
+        model.addLicense(license);
+        model.setBuild(new Build());
+        cache.put(new MavenProject(model));
+
+        MavenProject cached = cache.get("org.foo", "bar", "1.0");
+        assertNotNull(cached);
+        assertEquals("Bar", cached.getName());
+        assertEquals("Apache-2.0", cached.getLicenses().get(0).getName());
+        assertNull(cached.getModel().getBuild());
+        assertNull(cache.get("org.foo", "bar", "2.0"));
+
+        // a changed parent is a miss
+        write(
+                parentPom,
+                pom("<groupId>org.foo</groupId><artifactId>parent</artifactId><version>1</version>"
+                        + "<name>Parent</name>"));
+        assertNull(cache.get("org.foo", "bar", "1.0"));
+
+        // the descriptor of the previous POM files is replaced
+        cache.put(new MavenProject(model));
+        assertNotNull(cache.get("org.foo", "bar", "1.0"));
+        assertEquals(1, new File(basedir, "descriptors/org.foo/bar/1.0").list().length);
+    }
+
+    /**
+     * Verify that the same descriptor stored concurrently, e.g. listed twice in a batch, is stored once and complete.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testConcurrentPut() throws Exception {
+        File repository = new File(basedir, "repository");
+        write(
+                new File(repository, "org/foo/bar/1.0/bar-1.0.pom"),
+                pom("<groupId>org.foo</groupId><artifactId>bar</artifactId><version>1.0</version>"));
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        ProjectDescriptorCache cache = new ProjectDescriptorCache(
+                new File(basedir, "descriptors"),
+                artifactFactory,
+                new MavenArtifactRepository(
+                        "local", repository.toURI().toString(), new DefaultRepositoryLayout(), policy, policy),
+                new SystemStreamLog());
+
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("org.foo");
+        model.setArtifactId("bar");
+        model.setVersion("1.0");
+        model.setName("Bar");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                puts.add(executor.submit(() -> cache.put(new MavenProject(model))));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Bar", cache.get("org.foo", "bar", "1.0").getName());
+        // no temporary file left
+        assertEquals(1, new File(basedir, "descriptors/org.foo/bar/1.0").list().length);
+    }
+
+    private static String pom(String content) {
+        return "<project><modelVersion>4.0.0</modelVersion>" + content + "</project>";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link ReleaseDiscoveryGuard} class.
+ */
+class ReleaseDiscoveryGuardTest {
+    private final ArtifactRepository dead = repository("dead", "https://dead.example.org/maven2");
+
+    private final ArtifactRepository alive = repository("alive", "https://alive.example.org/maven2");
+
+    /**
+     * Verify that the circuit of a repository opens after consecutive failures only.
+     */
+    @Test
+    void testCircuitBreaker() {
+        ReleaseDiscoveryGuard guard = new ReleaseDiscoveryGuard(3, 0, new SystemStreamLog());
+        assertTrue(guard.isComplete());
+
+        guard.recordFailure(alive, "timeout");
+        guard.recordFailure(alive, "timeout");
+        guard.recordSuccess(alive);
+        guard.recordFailure(alive, "timeout");
+        guard.recordFailure(alive, "timeout");
+        assertTrue(guard.isAvailable(alive));
+
+        guard.recordFailure(dead, "timeout");
+        guard.recordFailure(dead, "timeout");
+        guard.recordFailure(dead, "timeout");
+        assertFalse(guard.isAvailable(dead));
+
+        // an open circuit stays open
+        guard.recordSuccess(dead);
+        assertFalse(guard.isAvailable(dead));
+        assertTrue(guard.isAvailable(alive));
+        assertFalse(guard.isComplete());
+    }
+
+    /**
+     * Verify that a repository without connector is skipped at once, unless the circuit breaker is disabled.
+     */
+    @Test
+    void testTrip() {
+        ReleaseDiscoveryGuard guard = new ReleaseDiscoveryGuard(3, 0, new SystemStreamLog());
+        guard.trip(dead, "no connector");
+        assertFalse(guard.isAvailable(dead));
+
+        guard = new ReleaseDiscoveryGuard(0, 0, new SystemStreamLog());
+        guard.trip(dead, "no connector");
+        assertTrue(guard.isAvailable(dead));
+    }
+
+    /**
+     * Verify the time budget.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testTimeBudget() throws Exception {
+        ReleaseDiscoveryGuard guard = new ReleaseDiscoveryGuard(3, 0, new SystemStreamLog());
+        assertFalse(guard.isExpired());
+        assertEquals(Long.MAX_VALUE, guard.remainingMillis());
+
+        guard = new ReleaseDiscoveryGuard(3, 1, new SystemStreamLog());
+        Thread.sleep(10);
+        assertTrue(guard.isExpired());
+        assertEquals(0, guard.remainingMillis());
+
+        assertFalse(guard.isTimedOut());
+        guard.timeout();
+        assertTrue(guard.isTimedOut());
+    }
+
+    private static ArtifactRepository repository(String id, String url) {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        return new MavenArtifactRepository(id, url, new DefaultRepositoryLayout(), policy, policy);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link ReleaseExistenceCache} class.
+ */
+class ReleaseExistenceCacheTest {
+    private static final String REPO = "https://repo.example.org/maven2";
+
+    private final Log log = new SystemStreamLog();
+
+    @TempDir
+    File cacheDirectory;
+
+    /**
+     * Verify that the recorded results are persisted and reloaded.
+     */
+    @Test
+    void testStoreAndReload() {
+        ReleaseExistenceCache cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        assertNull(cache.lookup(REPO, "1.0", "jar"));
+
+        cache.record(REPO, "1.0", "jar", true);
+        cache.record(REPO, "1.1", "jar", false);
+        cache.store();
+
+        assertTrue(new File(cacheDirectory, "org.foo/bar.properties").isFile());
+
+        cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        assertEquals(Boolean.TRUE, cache.lookup(REPO, "1.0", "jar"));
+        assertEquals(Boolean.FALSE, cache.lookup(REPO, "1.1", "jar"));
+        assertNull(cache.lookup(REPO, "1.0", "pom"));
+        assertNull(cache.lookup("https://other.example.org/maven2", "1.0", "jar"));
+    }
+
+    /**
+     * Verify that the checksum of a found artifact is persisted with its existence.
+     */
+    @Test
+    void testChecksum() {
+        ReleaseExistenceCache cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        cache.record(REPO, "1.0", "jar", true, "sha1:da39a3ee5e6b4b0d3255bfef95601890afd80709");
+        cache.record(REPO, "1.1", "jar", true);
+        cache.store();
+
+        cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", 0, log);
+        assertEquals(Boolean.TRUE, cache.lookup(REPO, "1.0", "jar"));
+        assertEquals("sha1:da39a3ee5e6b4b0d3255bfef95601890afd80709", cache.lookupChecksum(REPO, "1.0", "jar"));
+        assertNull(cache.lookupChecksum(REPO, "1.1", "jar"));
+    }
+
+    /**
+     * Verify that only negative results expire.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testNegativeTtl() throws Exception {
+        ReleaseExistenceCache cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", 0, log);
+        cache.record(REPO, "1.0", "jar", true);
+        cache.record(REPO, "1.1", "jar", false);
+        cache.store();
+
+        Thread.sleep(10);
+
+        cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", 0, log);
+        assertEquals(Boolean.TRUE, cache.lookup(REPO, "1.0", "jar"));
+        assertNull(cache.lookup(REPO, "1.1", "jar"));
+    }
+
+    /**
+     * Verify that caches opened concurrently merge their entries.
+     */
+    @Test
+    void testConcurrentStore() {
+        ReleaseExistenceCache first = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        ReleaseExistenceCache second = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+
+        first.record(REPO, "1.0", "jar", true);
+        second.record(REPO, "2.0", "jar", true);
+        first.store();
+        second.store();
+
+        ReleaseExistenceCache cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        assertEquals(Boolean.TRUE, cache.lookup(REPO, "1.0", "jar"));
+        assertEquals(Boolean.TRUE, cache.lookup(REPO, "2.0", "jar"));
+    }
+}
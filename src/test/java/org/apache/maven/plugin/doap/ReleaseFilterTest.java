@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link ReleaseFilter} class.
+ */
+class ReleaseFilterTest {
+    private static final List<String> VERSIONS =
+            Arrays.asList("1.0", "1.1-beta-1", "1.1", "2.0-M1", "2.0-RC1", "2.0", "2.1", "3.0-alpha-1");
+
+    /**
+     * Test method for {@link ReleaseFilter#isPreRelease(String)}.
+     */
+    @Test
+    void testIsPreRelease() {
+        assertTrue(ReleaseFilter.isPreRelease("1.0-alpha-1"));
+        assertTrue(ReleaseFilter.isPreRelease("1.0-beta2"));
+        assertTrue(ReleaseFilter.isPreRelease("2.0-M3"));
+        assertTrue(ReleaseFilter.isPreRelease("3.1.0-RC2"));
+        assertTrue(ReleaseFilter.isPreRelease("1.0-b2"));
+        assertTrue(ReleaseFilter.isPreRelease("1.0-SNAPSHOT"));
+
+        assertFalse(ReleaseFilter.isPreRelease("1.0"));
+        assertFalse(ReleaseFilter.isPreRelease("1.0-android"));
+        assertFalse(ReleaseFilter.isPreRelease("1.0.Final"));
+        assertFalse(ReleaseFilter.isPreRelease("1.0-b"));
+    }
+
+    /**
+     * Test method for {@link ReleaseFilter#filter(List)}.
+     */
+    @Test
+    void testFilter() {
+        assertSame(VERSIONS, new ReleaseFilter(0, null, null, false).filter(VERSIONS));
+
+        assertEquals(
+                Arrays.asList("1.0", "1.1", "2.0", "2.1"), new ReleaseFilter(0, null, null, true).filter(VERSIONS));
+        assertEquals(
+                Arrays.asList("2.0-M1", "2.0-RC1", "2.0", "2.1", "3.0-alpha-1"),
+                new ReleaseFilter(0, "2.0-M1", null, false).filter(VERSIONS));
+        assertEquals(Arrays.asList("2.0", "2.1"), new ReleaseFilter(0, null, "[2.0,3.0)", true).filter(VERSIONS));
+        assertEquals(Arrays.asList("2.1", "3.0-alpha-1"), new ReleaseFilter(2, null, null, false).filter(VERSIONS));
+        assertEquals(Arrays.asList("2.0", "2.1"), new ReleaseFilter(2, null, null, true).filter(VERSIONS));
+    }
+
+    /**
+     * Verify that an invalid version range is rejected.
+     */
+    @Test
+    void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> new ReleaseFilter(0, null, "[2.0", false));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link ReleaseMetadataResolver} class.
+ */
+class ReleaseMetadataResolverTest {
+    /**
+     * Verify that the versions of several repositories are merged once, in the version order.
+     */
+    @Test
+    void testMerge() {
+        Versioning central = versioning("20230101120000", "1.0", "1.9", "1.10");
+        Versioning mirror = versioning("20240101120000", "1.10", "1.2", "1.0");
+        Versioning internal = versioning("20220101120000", "2.0-alpha-1", "1.9");
+
+        Versioning merged = ReleaseMetadataResolver.merge(Arrays.asList(central, mirror, internal));
+        // 1.9 before 1.10, and each version once
+        assertEquals(Arrays.asList("1.0", "1.2", "1.9", "1.10", "2.0-alpha-1"), merged.getVersions());
+        assertEquals("20240101120000", merged.getLastUpdated());
+    }
+
+    /**
+     * Verify that a versioning without last update keeps the last update of the others.
+     */
+    @Test
+    void testMergeLastUpdated() {
+        Versioning merged = ReleaseMetadataResolver.merge(
+                Arrays.asList(versioning(null, "1.0"), versioning("20230101120000", "1.1"), versioning(null, "1.2")));
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2"), merged.getVersions());
+        assertEquals("20230101120000", merged.getLastUpdated());
+
+        merged = ReleaseMetadataResolver.merge(Collections.singletonList(versioning(null, "1.0")));
+        assertNull(merged.getLastUpdated());
+    }
+
+    /**
+     * Verify that there is no versioning without repository metadata.
+     */
+    @Test
+    void testMergeEmpty() {
+        assertNull(ReleaseMetadataResolver.merge(Collections.emptyList()));
+    }
+
+    private static Versioning versioning(String lastUpdated, String... versions) {
+        Versioning versioning = new Versioning();
+        versioning.setVersions(Arrays.asList(versions));
+        versioning.setLastUpdated(lastUpdated);
+        return versioning;
+    }
+}
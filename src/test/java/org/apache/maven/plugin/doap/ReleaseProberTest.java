@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.factory.ArtifactFactory;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.testing.PlexusTest;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.repository.LocalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link ReleaseProber} class against a stub connector provider.
+ */
+@PlexusTest
+class ReleaseProberTest {
+    private static final String CENTRAL = "https://repo.example.org/maven2";
+
+    private static final String BROKEN = "https://broken.example.org/maven2";
+
+    private static final String MIRROR = "https://mirror.example.org/maven2";
+
+    private static final String INTERNAL = "https://repo.example.com/internal";
+
+    private final Log log = new SystemStreamLog();
+
+    @Inject
+    private ArtifactFactory artifactFactory;
+
+    @Inject
+    private RepositorySystem repositorySystem;
+
+    @TempDir
+    File cacheDirectory;
+
+    /**
+     * Verify that a release missing from a repository is cached, but not a release whose check failed.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testFailureNotCached() throws Exception {
+        StubConnectorProvider connectorProvider =
+                new StubConnectorProvider().exists("central", "1.0").failing("broken");
+        ReleaseProber prober = newProber(connectorProvider, new ReleaseDiscoveryGuard(0, 0, log));
+        prober.setExistenceCache(ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log));
+
+        List<ArtifactRepository> repositories =
+                Arrays.asList(repository("central", CENTRAL), repository("broken", BROKEN));
+        Map<String, List<String>> fileReleases =
+                prober.probe("org.foo", "bar", "jar", Arrays.asList("1.1", "1.0"), repositories);
+        assertEquals(Collections.emptyList(), fileReleases.get("1.1"));
+        assertEquals(Collections.singletonList(CENTRAL + "/org/foo/bar/1.0/bar-1.0.jar"), fileReleases.get("1.0"));
+
+        ReleaseExistenceCache cache = ReleaseExistenceCache.open(cacheDirectory, "org.foo", "bar", -1, log);
+        assertEquals(Boolean.TRUE, cache.lookup(CENTRAL, "1.0", "jar"));
+        assertEquals(Boolean.FALSE, cache.lookup(CENTRAL, "1.1", "jar"));
+        // unknown, so probed again by the next build
+        assertNull(cache.lookup(BROKEN, "1.0", "jar"));
+        assertNull(cache.lookup(BROKEN, "1.1", "jar"));
+    }
+
+    /**
+     * Verify that the releases and their files are in the order of the versions and of the repositories, whatever
+     * the order in which the repositories answer.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testDeterministicOrder() throws Exception {
+        // the first repository answers last
+        StubConnectorProvider connectorProvider = new StubConnectorProvider()
+                .exists("central", "1.0", "1.10", "1.9")
+                .delay("central", 500)
+                .exists("mirror", "1.9", "1.0")
+                .delay("mirror", 200)
+                .exists("internal", "1.10", "1.0");
+        ReleaseProber prober = newProber(connectorProvider, new ReleaseDiscoveryGuard(0, 0, log));
+
+        List<ArtifactRepository> repositories = Arrays.asList(
+                repository("central", CENTRAL), repository("mirror", MIRROR), repository("internal", INTERNAL));
+        List<String> versions = Arrays.asList("1.10", "1.9", "1.0");
+        Map<String, List<String>> fileReleases = prober.probe("org.foo", "bar", "jar", versions, repositories);
+
+        assertEquals(versions, new ArrayList<>(fileReleases.keySet()));
+        assertEquals(
+                Arrays.asList(CENTRAL + "/org/foo/bar/1.10/bar-1.10.jar", INTERNAL + "/org/foo/bar/1.10/bar-1.10.jar"),
+                fileReleases.get("1.10"));
+        assertEquals(
+                Arrays.asList(CENTRAL + "/org/foo/bar/1.9/bar-1.9.jar", MIRROR + "/org/foo/bar/1.9/bar-1.9.jar"),
+                fileReleases.get("1.9"));
+        assertEquals(
+                Arrays.asList(
+                        CENTRAL + "/org/foo/bar/1.0/bar-1.0.jar",
+                        MIRROR + "/org/foo/bar/1.0/bar-1.0.jar",
+                        INTERNAL + "/org/foo/bar/1.0/bar-1.0.jar"),
+                fileReleases.get("1.0"));
+    }
+
+    /**
+     * Verify that each repository is probed through one connector, with all the releases in one batch.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testOneBatchPerRepository() throws Exception {
+        StubConnectorProvider connectorProvider =
+                new StubConnectorProvider().exists("central", "1.0", "1.1").exists("mirror", "1.1");
+        ReleaseProber prober = newProber(connectorProvider, new ReleaseDiscoveryGuard(0, 0, log));
+
+        List<ArtifactRepository> repositories =
+                Arrays.asList(repository("central", CENTRAL), repository("mirror", MIRROR));
+        prober.probe("org.foo", "bar", "jar", Arrays.asList("1.2", "1.1", "1.0"), repositories);
+
+        for (String id : new String[] {"central", "mirror"}) {
+            assertEquals(1, connectorProvider.getConnectors(id), id);
+            assertEquals(1, connectorProvider.getBatches(id), id);
+            assertEquals(1, connectorProvider.getClosed(id), id);
+        }
+    }
+
+    /**
+     * Verify that with the default failure threshold of 3 the releases are probed in batches of 3, 6, 12... through
+     * one connector, and that an unreachable repository costs a single batch.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testGrowingBatchesWithDefaultThreshold() throws Exception {
+        StubConnectorProvider connectorProvider =
+                new StubConnectorProvider().exists("central", "1.0", "1.5").failing("broken");
+        ReleaseProber prober = newProber(connectorProvider, new ReleaseDiscoveryGuard(3, 0, log));
+
+        List<String> versions = new ArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            versions.add("1." + i);
+        }
+        List<ArtifactRepository> repositories =
+                Arrays.asList(repository("central", CENTRAL), repository("broken", BROKEN));
+        prober.probe("org.foo", "bar", "jar", versions, repositories);
+
+        // 10 releases: batches of 3, 6 and 1
+        assertEquals(1, connectorProvider.getConnectors("central"));
+        assertEquals(3, connectorProvider.getBatches("central"));
+        assertEquals(10, connectorProvider.getRequests("central"));
+        // the circuit opens after the 3 failures of the first batch
+        assertEquals(1, connectorProvider.getBatches("broken"));
+        assertEquals(3, connectorProvider.getRequests("broken"));
+    }
+
+    private ReleaseProber newProber(StubConnectorProvider connectorProvider, ReleaseDiscoveryGuard guard) {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(
+                session, new LocalRepository(new File(cacheDirectory, "repository"))));
+        return new ReleaseProber(
+                artifactFactory,
+                connectorProvider,
+                session,
+                new DoapSessionCache(repositorySystem),
+                log,
+                4,
+                guard);
+    }
+
+    private static ArtifactRepository repository(String id, String url) {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        return new MavenArtifactRepository(id, url, new DefaultRepositoryLayout(), policy, policy);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test {@link RepositoryProbeSession} class against a stub connector provider.
+ */
+class RepositoryProbeSessionTest {
+    private static final String CENTRAL = "https://repo.example.org/maven2";
+
+    private final StubConnectorProvider connectorProvider = new StubConnectorProvider();
+
+    @TempDir
+    private File checksumDirectory;
+
+    /**
+     * Verify that a session opens one connector, checks all the artifacts in one batch and closes its connector.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testOneBatch() throws Exception {
+        connectorProvider.exists("central", "1.0", "1.2");
+        Artifact release10 = new DefaultArtifact("org.foo:bar:jar:1.0");
+        Artifact release11 = new DefaultArtifact("org.foo:bar:jar:1.1");
+        Artifact release12 = new DefaultArtifact("org.foo:bar:jar:1.2");
+
+        try (RepositoryProbeSession session = open("central")) {
+            Map<Artifact, Boolean> result = session.exist(Arrays.asList(release10, release11, release12));
+            assertEquals(Arrays.asList(release10, release11, release12), new ArrayList<>(result.keySet()));
+            assertEquals(Boolean.TRUE, result.get(release10));
+            assertEquals(Boolean.FALSE, result.get(release11));
+            assertEquals(Boolean.TRUE, result.get(release12));
+            assertNull(session.getLastFailure());
+
+            assertEquals(1, connectorProvider.getConnectors("central"));
+            assertEquals(1, connectorProvider.getBatches("central"));
+            assertEquals(0, connectorProvider.getClosed("central"));
+        }
+        assertEquals(1, connectorProvider.getClosed("central"));
+    }
+
+    /**
+     * Verify that the <code>.sha512</code> files are downloaded with the existence checks, and the <code>.sha1</code>
+     * files only for the found artifacts without a <code>.sha512</code> file.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testChecksumFallback() throws Exception {
+        connectorProvider
+                .exists("central", "1.0", "1.1")
+                .checksums("central", "sha512", "1.0")
+                .checksums("central", "sha1", "1.0", "1.1");
+        Artifact release10 = new DefaultArtifact("org.foo:bar:jar:1.0");
+        Artifact release11 = new DefaultArtifact("org.foo:bar:jar:1.1");
+        Artifact release12 = new DefaultArtifact("org.foo:bar:jar:1.2");
+
+        Map<Artifact, String> checksums = new HashMap<>();
+        try (RepositoryProbeSession session = open("central")) {
+            Map<Artifact, Boolean> result =
+                    session.exist(Arrays.asList(release10, release11, release12), checksumDirectory, checksums);
+            assertEquals(Boolean.TRUE, result.get(release10));
+            assertEquals(Boolean.TRUE, result.get(release11));
+            assertEquals(Boolean.FALSE, result.get(release12));
+        }
+
+        assertEquals("sha512:" + StubConnectorProvider.checksum("sha512"), checksums.get(release10));
+        assertEquals("sha1:" + StubConnectorProvider.checksum("sha1"), checksums.get(release11));
+        assertEquals(2, checksums.size());
+        // 3 existence checks and 3 .sha512 files, then the .sha1 file of 1.1 only
+        assertEquals(2, connectorProvider.getBatches("central"));
+        assertEquals(7, connectorProvider.getRequests("central"));
+    }
+
+    /**
+     * Verify that a failed check is unknown, not missing, and keeps its failure.
+     *
+     * @throws Exception if any
+     */
+    @Test
+    void testFailure() throws Exception {
+        connectorProvider.failing("central");
+        Artifact release = new DefaultArtifact("org.foo:bar:jar:1.0");
+
+        try (RepositoryProbeSession session = open("central")) {
+            Map<Artifact, Boolean> result = session.exist(Collections.singletonList(release));
+            assertNull(result.get(release));
+            assertEquals("Connection reset", session.getLastFailure().getMessage());
+        }
+        assertEquals(1, connectorProvider.getBatches("central"));
+    }
+
+    private RepositoryProbeSession open(String id) throws Exception {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        return RepositoryProbeSession.open(
+                connectorProvider,
+                new DefaultRepositorySystemSession(),
+                new MavenArtifactRepository(id, CENTRAL, new DefaultRepositoryLayout(), policy, policy),
+                new RemoteRepository.Builder(id, "default", CENTRAL).build());
+    }
+}
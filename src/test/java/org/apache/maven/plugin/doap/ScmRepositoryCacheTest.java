@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.scm.manager.AbstractScmManager;
+import org.apache.maven.scm.manager.NoSuchScmProviderException;
+import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link ScmRepositoryCache} class.
+ */
+class ScmRepositoryCacheTest {
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private final ScmManager scmManager = new AbstractScmManager() {
+        @Override
+        public ScmRepository makeScmRepository(String scmUrl) throws NoSuchScmProviderException {
+            parsed.incrementAndGet();
+            if (!scmUrl.startsWith("scm:svn:")) {
+                throw new NoSuchScmProviderException(scmUrl);
+            }
+            return new ScmRepository("svn", null);
+        }
+    };
+
+    /**
+     * Verify that each SCM URL is parsed once, even if it is not valid.
+     */
+    @Test
+    void testCache() {
+        ScmRepositoryCache cache = new ScmRepositoryCache();
+
+        String svn = "scm:svn:http://svn.example.org/repos/trunk";
+        ScmRepository repository = cache.getScmRepository(scmManager, svn, new SystemStreamLog());
+        assertEquals("svn", repository.getProvider());
+        assertTrue(cache.contains(svn));
+        assertSame(repository, cache.getScmRepository(scmManager, svn, new SystemStreamLog()));
+
+        String unknown = "scm:foo:http://foo.example.org";
+        assertNull(cache.getScmRepository(scmManager, unknown, new SystemStreamLog()));
+        assertNull(cache.getScmRepository(scmManager, unknown, new SystemStreamLog()));
+
+        assertEquals(2, parsed.get());
+    }
+}
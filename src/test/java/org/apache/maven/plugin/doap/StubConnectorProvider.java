@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.doap;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.ArtifactDownload;
+import org.eclipse.aether.spi.connector.ArtifactUpload;
+import org.eclipse.aether.spi.connector.MetadataDownload;
+import org.eclipse.aether.spi.connector.MetadataUpload;
+import org.eclipse.aether.spi.connector.RepositoryConnector;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.ArtifactTransferException;
+
+/**
+ * A {@link RepositoryConnectorProvider} answering the existence checks from the versions given for each repository,
+ * without network, serving the published checksum files given for each repository, and counting the connectors,
+ * batches and requests of each repository.
+ */
+class StubConnectorProvider implements RepositoryConnectorProvider {
+    private final Map<String, Set<String>> versions = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> checksumFiles = new ConcurrentHashMap<>();
+
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> connectors = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> batches = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> closed = new ConcurrentHashMap<>();
+
+    /**
+     * @param repositoryId not null
+     * @param existing the versions existing in the repository
+     * @return this provider
+     */
+    StubConnectorProvider exists(String repositoryId, String... existing) {
+        versions.computeIfAbsent(repositoryId, id -> ConcurrentHashMap.newKeySet()).addAll(Arrays.asList(existing));
+        return this;
+    }
+
+    /**
+     * @param repositoryId not null
+     * @param algorithm the algorithm of the published checksum files, e.g. <code>sha1</code>
+     * @param published the versions with a published checksum file, containing {@link #checksum(String)}
+     * @return this provider
+     */
+    StubConnectorProvider checksums(String repositoryId, String algorithm, String... published) {
+        Set<String> files = checksumFiles.computeIfAbsent(repositoryId, id -> ConcurrentHashMap.newKeySet());
+        for (String version : published) {
+            files.add(version + "." + algorithm);
+        }
+        return this;
+    }
+
+    /**
+     * @param algorithm not null
+     * @return the content of the published checksum files of the algorithm
+     */
+    static String checksum(String algorithm) {
+        return "sha512".equals(algorithm) ? "cafe512" : "cafe1";
+    }
+
+    /**
+     * @param repositoryId not null
+     * @return this provider, failing all the transfers of the repository as if it could not be reached
+     */
+    StubConnectorProvider failing(String repositoryId) {
+        failing.add(repositoryId);
+        return this;
+    }
+
+    /**
+     * @param repositoryId not null
+     * @param millis the time taken by each batch of the repository
+     * @return this provider
+     */
+    StubConnectorProvider delay(String repositoryId, long millis) {
+        delays.put(repositoryId, millis);
+        return this;
+    }
+
+    int getConnectors(String repositoryId) {
+        return count(connectors, repositoryId).get();
+    }
+
+    int getBatches(String repositoryId) {
+        return count(batches, repositoryId).get();
+    }
+
+    /**
+     * @param repositoryId not null
+     * @return the number of transfers requested from the repository, existence checks and downloads
+     */
+    int getRequests(String repositoryId) {
+        return count(requests, repositoryId).get();
+    }
+
+    int getClosed(String repositoryId) {
+        return count(closed, repositoryId).get();
+    }
+
+    @Override
+    public RepositoryConnector newRepositoryConnector(RepositorySystemSession session, RemoteRepository repository) {
+        count(connectors, repository.getId()).incrementAndGet();
+        return new RepositoryConnector() {
+            @Override
+            public void get(
+                    Collection<? extends ArtifactDownload> artifactDownloads,
+                    Collection<? extends MetadataDownload> metadataDownloads) {
+                String id = repository.getId();
+                count(batches, id).incrementAndGet();
+                Long delay = delays.get(id);
+                if (delay != null) {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                for (ArtifactDownload download : artifactDownloads) {
+                    count(requests, id).incrementAndGet();
+                    String extension = download.getArtifact().getExtension();
+                    String algorithm = extension.substring(extension.lastIndexOf('.') + 1);
+                    if (failing.contains(id)) {
+                        download.setException(
+                                new ArtifactTransferException(download.getArtifact(), repository, "Connection reset"));
+                    } else if (!download.isExistenceCheck()
+                            && checksumFiles
+                                    .getOrDefault(id, Collections.emptySet())
+                                    .contains(download.getArtifact().getVersion() + "." + algorithm)) {
+                        try {
+                            Files.createDirectories(download.getFile().getParentFile().toPath());
+                            Files.write(
+                                    download.getFile().toPath(),
+                                    checksum(algorithm).getBytes(StandardCharsets.UTF_8));
+                        } catch (IOException e) {
+                            download.setException(
+                                    new ArtifactTransferException(download.getArtifact(), repository, e));
+                        }
+                    } else if (!download.isExistenceCheck()
+                            || !versions.getOrDefault(id, Collections.emptySet())
+                                    .contains(download.getArtifact().getVersion())) {
+                        download.setException(new ArtifactNotFoundException(download.getArtifact(), repository));
+                    }
+                }
+            }
+
+            @Override
+            public void put(
+                    Collection<? extends ArtifactUpload> artifactUploads,
+                    Collection<? extends MetadataUpload> metadataUploads) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void close() {
+                count(closed, repository.getId()).incrementAndGet();
+            }
+        };
+    }
+
+    private static AtomicInteger count(Map<String, AtomicInteger> counts, String repositoryId) {
+        return counts.computeIfAbsent(repositoryId, id -> new AtomicInteger());
+    }
+}